@@ -0,0 +1,95 @@
+package example.docs.bench;
+
+import example.docs.DocumentServiceApp;
+import example.docs.support.DatasetSeeder;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Окружение бенчмарков: PostgreSQL, поднятый Spring-контекст сервиса и засеянный набор данных.
+ * <p>
+ * По умолчанию запускается встроенный PostgreSQL (zonky embedded-postgres); если задано
+ * свойство bench.jdbc.url, используется указанная локальная база. Объем данных задается
+ * свойством bench.dataset.size. Окружение создается один раз на JVM и закрывается при ее завершении.
+ */
+public final class BenchmarkEnvironment {
+
+    private static BenchmarkEnvironment instance;
+
+    private final EmbeddedPostgres embeddedPostgres;
+    private final ConfigurableApplicationContext context;
+    private final DatasetSeeder seeder;
+
+    private BenchmarkEnvironment() throws Exception {
+        String url = System.getProperty("bench.jdbc.url", "");
+        String user = System.getProperty("bench.jdbc.user", "docs_user");
+        String password = System.getProperty("bench.jdbc.password", "docs_pass");
+
+        if (url.isBlank()) {
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+            url = embeddedPostgres.getJdbcUrl("postgres", "postgres");
+            user = "postgres";
+            password = "";
+        } else {
+            embeddedPostgres = null;
+        }
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + user,
+                "--spring.datasource.password=" + password,
+                "--spring.main.banner-mode=off",
+                "--app.workers.enabled=false",
+                "--app.workers.wakeup.enabled=false",
+                "--app.notify.enabled=false",
+                "--app.feed.enabled=false",
+                "--logging.level.example.docs=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"
+        ));
+
+        context = new SpringApplicationBuilder(DocumentServiceApp.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+
+        seeder = new DatasetSeeder(context.getBean(JdbcTemplate.class));
+        seeder.seed(Integer.getInteger("bench.dataset.size", 100_000));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "bench-shutdown"));
+    }
+
+    public static synchronized BenchmarkEnvironment get() {
+        if (instance == null) {
+            try {
+                instance = new BenchmarkEnvironment();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to start benchmark environment", e);
+            }
+        }
+        return instance;
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public DatasetSeeder seeder() {
+        return seeder;
+    }
+
+    private void close() {
+        context.close();
+        if (embeddedPostgres != null) {
+            try {
+                embeddedPostgres.close();
+            } catch (Exception ignored) {
+                // JVM завершается, ошибки остановки базы не важны
+            }
+        }
+    }
+}
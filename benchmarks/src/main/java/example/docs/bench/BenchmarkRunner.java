@@ -0,0 +1,48 @@
+package example.docs.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Точка входа для запуска бенчмарков.
+ * <p>
+ * Результаты сохраняются в JSON (bench.result.dir/jmh-&lt;bench.label&gt;.json), чтобы их можно было
+ * сравнивать между коммитами, например в JMH Visualizer. Все системные свойства bench.*
+ * пробрасываются в дочерние JVM, которые создает JMH.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        String label = System.getProperty("bench.label", "");
+        if (label.isBlank()) {
+            label = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        }
+        Path resultDir = Path.of(System.getProperty("bench.result.dir", "target/jmh"));
+        Files.createDirectories(resultDir);
+        Path resultFile = resultDir.resolve("jmh-" + label + ".json");
+
+        List<String> jvmArgs = new ArrayList<>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("bench."))
+                .forEach(name -> jvmArgs.add("-D" + name + "=" + System.getProperty(name)));
+
+        Options options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackageName() + "\\..*(" + System.getProperty("bench.include", ".*") + ")")
+                .jvmArgsAppend(jvmArgs.toArray(new String[0]))
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+
+        new Runner(options).run();
+        System.out.println("Результаты сохранены в " + resultFile.toAbsolutePath());
+    }
+}
@@ -0,0 +1,47 @@
+package example.docs.bench;
+
+import example.docs.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка документа вместе с историей (GET /api/documents/{id}) по случайному
+ * идентификатору утвержденного документа.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadBenchmark {
+
+    private BenchmarkEnvironment environment;
+    private DocumentService documentService;
+
+    @Setup
+    public void setUp() {
+        environment = BenchmarkEnvironment.get();
+        documentService = environment.bean(DocumentService.class);
+    }
+
+    @Benchmark
+    public Object getWithHistory() {
+        return documentService.getDocumentWithHistory(environment.seeder().randomApprovedId());
+    }
+
+    @Benchmark
+    public Object getView() {
+        return documentService.getDocumentView(environment.seeder().randomApprovedId());
+    }
+}
@@ -0,0 +1,79 @@
+package example.docs.bench;
+
+import example.docs.dto.DocumentSearchFilter;
+import example.docs.entity.DocumentStatus;
+import example.docs.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск документов по всем комбинациям фильтров (статус, автор, период)
+ * в режимах постраничной выдачи с подсчетом total и курсорной (keyset) пагинации.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * Комбинация фильтров: s - статус, a - автор, p - период (последние 30 дней), t - подстрока названия.
+     */
+    @Param({"none", "s", "a", "p", "t", "sa", "sp", "ap", "st", "sap"})
+    public String filters;
+
+    private DocumentService documentService;
+    private DocumentSearchFilter filter;
+
+    @Setup
+    public void setUp() {
+        documentService = BenchmarkEnvironment.get().bean(DocumentService.class);
+        filter = new DocumentSearchFilter();
+        if (filters.contains("s")) {
+            filter.setStatus(DocumentStatus.SUBMITTED);
+        }
+        if (filters.contains("a")) {
+            filter.setAuthor("Author-7");
+        }
+        if (filters.contains("p")) {
+            filter.setFrom(LocalDateTime.now().minusDays(30));
+            filter.setTo(LocalDateTime.now());
+        }
+        if (filters.contains("t")) {
+            filter.setTitleContains("ment 4242");
+        }
+    }
+
+    @Benchmark
+    public Object page() {
+        return documentService.searchDocuments(filter, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")), false);
+    }
+
+    @Benchmark
+    public Object cursor() {
+        return documentService.searchDocumentsByCursor(filter, null, PAGE_SIZE, Sort.Direction.DESC, false);
+    }
+
+    @Benchmark
+    public Object text() {
+        return documentService.searchText("document 4242", filter.getStatus(), PAGE_SIZE, false);
+    }
+}
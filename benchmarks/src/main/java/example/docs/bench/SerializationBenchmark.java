@@ -0,0 +1,69 @@
+package example.docs.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.docs.entity.Document;
+import example.docs.entity.DocumentAction;
+import example.docs.entity.DocumentHistory;
+import example.docs.entity.DocumentStatus;
+import example.docs.id.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответа GET /api/documents/{id} в JSON без обращения к базе.
+ * ObjectMapper собирается тем же билдером, что и в Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"0", "2", "20"})
+    public int historySize;
+
+    private ObjectMapper objectMapper;
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        document = new Document();
+        document.setId(IdGenerator.next());
+        document.setUniqueNumber("BENCH-1");
+        document.setAuthor("Author-1");
+        document.setTitle("Benchmark document 1");
+        document.setStatus(DocumentStatus.APPROVED);
+        document.setCreatedAt(LocalDateTime.now());
+        document.setUpdatedAt(LocalDateTime.now());
+        document.setVersion(2L);
+        for (int i = 0; i < historySize; i++) {
+            DocumentHistory history = new DocumentHistory(document, "BENCHMARK",
+                    i % 2 == 0 ? DocumentAction.SUBMIT : DocumentAction.APPROVE, "Comment " + i);
+            history.setId(IdGenerator.next());
+            history.setCreatedAt(LocalDateTime.now());
+            document.getHistory().add(history);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(document);
+    }
+}
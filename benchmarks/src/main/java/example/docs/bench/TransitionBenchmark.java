@@ -0,0 +1,69 @@
+package example.docs.bench;
+
+import example.docs.entity.DocumentStatus;
+import example.docs.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Смена статусов: поштучная (batchSize = 1, путь через DocumentProcessor) и пакетная
+ * (set-based путь DocumentBulkProcessor с поштучным досчетом).
+ * <p>
+ * Документы для каждого вызова вставляются заранее в {@link Level#Invocation}-подготовке,
+ * которая не входит в замер; длительность одного вызова - миллисекунды, поэтому накладные
+ * расходы JMH на такую подготовку несущественны.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TransitionBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int batchSize;
+
+    private BenchmarkEnvironment environment;
+    private DocumentService documentService;
+    private List<UUID> drafts;
+    private List<UUID> submitted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.get();
+        documentService = environment.bean(DocumentService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareDocuments() {
+        drafts = environment.seeder().insertDocuments(DocumentStatus.DRAFT, batchSize, LocalDateTime.now());
+        submitted = environment.seeder().insertDocuments(DocumentStatus.SUBMITTED, batchSize, LocalDateTime.now());
+    }
+
+    @Benchmark
+    public Map<UUID, String> submit() {
+        return documentService.submitBatch(drafts, "BENCHMARK");
+    }
+
+    @Benchmark
+    public Map<UUID, String> approve() {
+        return documentService.approveBatch(submitted, "BENCHMARK");
+    }
+}
@@ -0,0 +1,20 @@
+package example.docs.config;
+
+import example.docs.id.IdGenerator;
+import example.docs.id.UuidVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Выбор алгоритма генерации идентификаторов документов, истории и реестра.
+ */
+@Slf4j
+@Configuration
+public class IdGenerationConfig {
+
+    public IdGenerationConfig(@Value("${app.ids.uuid-version:V7}") UuidVersion version) {
+        IdGenerator.setVersion(version);
+        log.info("Document ids are generated as UUID {}", version);
+    }
+}
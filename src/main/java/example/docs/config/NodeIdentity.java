@@ -0,0 +1,22 @@
+package example.docs.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Идентификатор текущего экземпляра сервиса.
+ * Используется для пометки документов, захваченных воркерами этого узла.
+ */
+@Getter
+@Component
+public class NodeIdentity {
+
+    private final String id;
+
+    public NodeIdentity(@Value("${app.node-id:}") String configuredId) {
+        this.id = configuredId.isBlank() ? "node-" + UUID.randomUUID() : configuredId;
+    }
+}
@@ -0,0 +1,82 @@
+package example.docs.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация чтения на реплики PostgreSQL (app.datasource.replicas.enabled).
+ * <p>
+ * Основным источником данных становится {@link LazyConnectionDataSourceProxy}: физическое соединение берется
+ * только при первом запросе, когда уже известен признак readOnly транзакции. Транзакции
+ * {@code @Transactional(readOnly = true)} (поиск, курсорный поиск, пакетное получение, выгрузка) получают
+ * соединение из пулов реплик через {@link ReplicaRoutingDataSource}, остальные - из пула основной базы.
+ * Пулы реплик создаются с короткими таймаутами получения и проверки соединения (app.datasource.replicas.connection-timeout,
+ * validation-timeout): при отказе реплики чтение переходит на основную базу за доли секунды.
+ * Без этой настройки используется стандартный источник данных Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                                     MeterRegistry meterRegistry,
+                                                     @Value("${app.datasource.replicas.urls}") List<String> urls,
+                                                     @Value("${app.datasource.replicas.username:${spring.datasource.username}}") String username,
+                                                     @Value("${app.datasource.replicas.password:${spring.datasource.password}}") String password,
+                                                     @Value("${app.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+                                                     @Value("${app.datasource.replicas.connection-timeout:1000}") long connectionTimeoutMs,
+                                                     @Value("${app.datasource.replicas.validation-timeout:500}") long validationTimeoutMs,
+                                                     @Value("${app.datasource.replicas.health-check-interval:5000}") long checkIntervalMs,
+                                                     @Value("${app.datasource.replicas.max-lag:0}") long maxLagMs) {
+        List<HikariDataSource> pools = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(maximumPoolSize);
+            // Короткие таймауты: недоступная реплика должна быстро уступать основной базе, а не держать запрос 30 секунд
+            config.setConnectionTimeout(connectionTimeoutMs);
+            config.setValidationTimeout(validationTimeoutMs);
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1);
+            pools.add(new HikariDataSource(config));
+        }
+
+        ReplicaRoutingDataSource replicas = new ReplicaRoutingDataSource(primaryDataSource, pools, maxLagMs, checkIntervalMs);
+        Gauge.builder("documents.datasource.replicas.healthy", replicas, ReplicaRoutingDataSource::healthyCount)
+                .description("Read replicas currently accepting read-only transactions")
+                .register(meterRegistry);
+        return replicas;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
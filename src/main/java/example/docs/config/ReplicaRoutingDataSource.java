@@ -0,0 +1,142 @@
+package example.docs.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для читающих транзакций: реплики по кругу, при недоступности всех реплик - основная база.
+ * <p>
+ * Состояние реплик проверяется фоновым опросом: реплика исключается из ротации, если к ней нельзя подключиться
+ * или ее отставание превышает maxLagMs (0 - без ограничения), и возвращается после успешной проверки.
+ * Отставание считается нулевым, если реплика воспроизвела весь полученный WAL (иначе простой основной базы
+ * выглядел бы как растущее отставание), но только пока WAL-приемник реплики в состоянии streaming: отключенная
+ * от основной базы реплика тоже воспроизвела все полученное, поэтому при заданном maxLagMs она исключается
+ * (статус приемника виден пользователю с ролью pg_read_all_stats). Ошибка получения соединения сразу исключает
+ * реплику до следующей проверки.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final String LAG_SQL = """
+            SELECT pg_is_in_recovery() AS in_recovery,
+                   EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') AS streaming,
+                   CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END::bigint AS lag_ms
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, long maxLagMs, long checkIntervalMs) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        for (HikariDataSource pool : replicaPools) {
+            replicas.add(new Replica(pool));
+        }
+        checkHealth();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-health-"));
+        this.healthChecker.scheduleWithFixedDelay(this::checkHealth, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            try {
+                return replica.getPool().getConnection();
+            } catch (SQLException e) {
+                replica.update(false, 0, e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses pooled credentials");
+    }
+
+    /**
+     * Количество реплик, которые сейчас принимают читающие транзакции.
+     */
+    public int healthyCount() {
+        return (int) replicas.stream().filter(Replica::isHealthy).count();
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.getPool().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                long lagMs = rs.getLong("lag_ms");
+                boolean streaming = !rs.getBoolean("in_recovery") || rs.getBoolean("streaming");
+                if (maxLagMs > 0 && !streaming) {
+                    replica.update(false, lagMs, "WAL receiver is not streaming, replication lag is unknown");
+                    continue;
+                }
+                boolean withinLag = maxLagMs <= 0 || lagMs <= maxLagMs;
+                replica.update(withinLag, lagMs, withinLag ? null : "replication lag " + lagMs + " ms exceeds " + maxLagMs + " ms");
+            } catch (SQLException | RuntimeException e) {
+                replica.update(false, 0, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.getPool().close());
+    }
+
+    @Getter
+    private static class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile long lagMs;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private synchronized void update(boolean healthy, long lagMs, String reason) {
+            this.lagMs = lagMs;
+            if (this.healthy != healthy) {
+                if (healthy) {
+                    log.info("Read replica {} is back in rotation (lag {} ms)", pool.getJdbcUrl(), lagMs);
+                } else {
+                    log.warn("Read replica {} removed from rotation: {}", pool.getJdbcUrl(), reason);
+                }
+            }
+            this.healthy = healthy;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package example.docs.controller;
+
+import example.docs.dto.BatchJobDto;
+import example.docs.dto.BatchJobItemDto;
+import example.docs.dto.CursorPageDto;
+import example.docs.service.BatchJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@Tag(name = "Пакетные задания", description = "Прогресс и результаты асинхронной пакетной смены статусов")
+@RestController
+@RequestMapping("/api/v1/batch-jobs")
+@RequiredArgsConstructor
+public class BatchJobController {
+
+    private final BatchJobService batchJobService;
+
+    @Value("${app.batch-jobs.max-results-page-size:10000}")
+    private int maxResultsPageSize;
+
+    @Operation(summary = "Состояние задания",
+               description = "Статус задания и счетчики прогресса (обработано, успешно, с ошибками)."
+    )
+    @GetMapping("/{id}")
+    public BatchJobDto getJob(@PathVariable UUID id) {
+        return batchJobService.getJob(id)
+                .orElseThrow(() -> new EntityNotFoundException("Batch job not found: " + id));
+    }
+
+    @Operation(summary = "Результаты задания",
+               description = "Результаты по документам в порядке исходного запроса с курсорной пагинацией. "
+                       + "Для необработанных документов result равен null."
+    )
+    @GetMapping("/{id}/results")
+    public CursorPageDto<BatchJobItemDto> getResults(@PathVariable UUID id,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "1000") int size) {
+        getJob(id);
+        return batchJobService.getResults(id, cursor, Math.max(1, Math.min(size, maxResultsPageSize)));
+    }
+}
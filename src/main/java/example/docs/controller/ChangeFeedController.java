@@ -0,0 +1,98 @@
+package example.docs.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import example.docs.dto.ChangeEventDto;
+import example.docs.dto.ExportFormat;
+import example.docs.service.ChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Tag(name = "Лента изменений", description = "Поток закоммиченных изменений статусов документов с возобновлением по смещению")
+@RestController
+@RequestMapping("/api/v1/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+    private final ObjectWriter jsonWriter;
+    private final long maxWaitMs;
+
+    public ChangeFeedController(ChangeFeed changeFeed,
+                                ObjectMapper objectMapper,
+                                @Value("${app.feed.max-wait:30s}") Duration maxWait) {
+        this.changeFeed = changeFeed;
+        this.jsonWriter = objectMapper.writerFor(ChangeEventDto.class);
+        this.maxWaitMs = maxWait.toMillis();
+    }
+
+    @Operation(summary = "Подписка на ленту изменений (SSE)",
+               description = "Server-sent events: каждое событие - закоммиченная запись истории документа, id события - ее смещение seq. "
+                       + "Подписка начинается после смещения из заголовка Last-Event-ID или параметра after "
+                       + "(без них - только новые события), поэтому после разрыва клиент продолжает с последнего полученного события. "
+                       + "При отсутствии событий периодически отправляется комментарий keepalive."
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             @RequestParam(required = false) Long after) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+
+    @Operation(summary = "Чтение ленты изменений (long-poll)",
+               description = "Возвращает события после смещения after (не более limit) в формате NDJSON. "
+                       + "Если новых событий нет, ответ ждет их до wait секунд и возвращается пустым по истечении ожидания. "
+                       + "Смещение последнего события (или переданное after) возвращается в заголовке X-Feed-Last-Seq; "
+                       + "следующий запрос продолжает с него. Без after чтение начинается с текущего конца ленты."
+    )
+    @GetMapping(produces = "application/x-ndjson")
+    public DeferredResult<ResponseEntity<byte[]>> poll(@RequestParam(required = false) Long after,
+                                                       @RequestParam(defaultValue = "1000") int limit,
+                                                       @RequestParam(defaultValue = "25") int wait) {
+        long from = after != null ? after : changeFeed.frontier();
+        long timeoutMs = Math.min(TimeUnit.SECONDS.toMillis(wait), maxWaitMs);
+        if (timeoutMs <= 0) {
+            DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>();
+            result.setResult(ndjson(changeFeed.read(from, limit), from));
+            return result;
+        }
+
+        DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(timeoutMs, () -> ndjson(List.of(), from));
+        Runnable cancel = changeFeed.await(from, limit, events -> result.setResult(ndjson(events, from)));
+        result.onCompletion(cancel);
+        return result;
+    }
+
+    private ResponseEntity<byte[]> ndjson(List<ChangeEventDto> events, long after) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            for (ChangeEventDto event : events) {
+                body.writeBytes(jsonWriter.writeValueAsBytes(event));
+                body.write('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        long lastSeq = events.isEmpty() ? after : events.get(events.size() - 1).getSeq();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportFormat.NDJSON.getMediaType()))
+                .header("X-Feed-Last-Seq", String.valueOf(lastSeq))
+                .body(body.toByteArray());
+    }
+}
@@ -1,26 +1,56 @@
 package example.docs.controller;
 
 import example.docs.dto.BatchActionRequest;
+import example.docs.dto.BatchGetItemDto;
+import example.docs.dto.BatchJobDto;
+import example.docs.dto.ConcurrencyBenchmarkRequest;
 import example.docs.dto.ConcurrencyReportDto;
 import example.docs.dto.CreateDocumentRequest;
+import example.docs.dto.CursorPageDto;
+import example.docs.dto.DocumentSearchFilter;
+import example.docs.dto.DocumentStatsDto;
+import example.docs.dto.DocumentSummaryDto;
+import example.docs.dto.ExportFormat;
+import example.docs.dto.ImportReportDto;
+import example.docs.dto.LockingStrategyReportDto;
 import example.docs.entity.Document;
+import example.docs.entity.DocumentAction;
 import example.docs.entity.DocumentStatus;
+import example.docs.service.BatchJobService;
+import example.docs.service.DocumentExportService;
+import example.docs.service.DocumentImportService;
 import example.docs.service.DocumentService;
+import example.docs.service.LockingBenchmark;
+import example.docs.service.LockingStrategy;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Tag(name = "Управление документами", description = "API для работы с документами(создание, поиск, смена статусов)")
@@ -29,39 +59,137 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DocumentController {
 
+    private static final String INCLUDE_HISTORY = "history";
+
     private final DocumentService documentService;
+    private final DocumentExportService documentExportService;
+    private final DocumentImportService documentImportService;
+    private final BatchJobService batchJobService;
+    private final LockingBenchmark lockingBenchmark;
+
+    @Value("${app.locking.strategy:OPTIMISTIC}")
+    private LockingStrategy defaultLockingStrategy;
 
     @Operation(summary = "Поиск документов",
-               description = "Динамический поиск с пагинацией и фильтрацией по статусу, автору и дате создания."
+               description = "Динамический поиск с пагинацией и фильтрацией по статусу, автору, дате создания "
+                       + "и подстрокам названия и автора (titleContains, authorContains - без учета регистра, от 3 символов). "
+                       + "Возвращает плоские представления документов; include=history добавляет историю изменений."
     )
     @GetMapping("/search")
-    public Page<Document> searchDocuments(@RequestParam(required = false) DocumentStatus status,
-                                          @RequestParam(required = false) String author,
-                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
-                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
-                                          @PageableDefault(size = 20) Pageable pageable) {
+    public Page<DocumentSummaryDto> searchDocuments(@RequestParam(required = false) DocumentStatus status,
+                                                    @RequestParam(required = false) String author,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                    @RequestParam(required = false) String titleContains,
+                                                    @RequestParam(required = false) String authorContains,
+                                                    @RequestParam(defaultValue = "") List<String> include,
+                                                    @PageableDefault(size = 20) Pageable pageable) {
+
+        DocumentSearchFilter filter = new DocumentSearchFilter(status, author, from, to, titleContains, authorContains);
+        return documentService.searchDocuments(filter, pageable, include.contains(INCLUDE_HISTORY));
+    }
+
+    @Operation(summary = "Полнотекстовый поиск документов",
+               description = "Ранжированный поиск по словам названия и автора (синтаксис websearch: слова через пробел, "
+                       + "\"фраза\", or, -исключение). Совпадения в названии важнее совпадений в авторе. "
+                       + "Количество результатов ограничено app.search.max-text-results."
+    )
+    @GetMapping("/search/text")
+    public List<DocumentSummaryDto> searchText(@RequestParam String q,
+                                               @RequestParam(required = false) DocumentStatus status,
+                                               @RequestParam(defaultValue = "20") int limit,
+                                               @RequestParam(defaultValue = "") List<String> include) {
+        return documentService.searchText(q, status, limit, include.contains(INCLUDE_HISTORY));
+    }
+
+    @Operation(summary = "Поиск документов (курсорная пагинация)",
+               description = "Поиск с теми же фильтрами, что и /search, но с keyset-пагинацией по (created_at, id). "
+                       + "Для следующей страницы передайте nextCursor из предыдущего ответа. COUNT-запрос не выполняется."
+    )
+    @GetMapping("/search/cursor")
+    public CursorPageDto<DocumentSummaryDto> searchDocumentsByCursor(DocumentSearchFilter filter,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "20") int size,
+                                                                     @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+                                                                     @RequestParam(defaultValue = "") List<String> include) {
 
-        return documentService.searchDocuments(status, author, from, to, pageable);
+        return documentService.searchDocumentsByCursor(filter, cursor, size, direction, include.contains(INCLUDE_HISTORY));
+    }
+
+    @Operation(summary = "Выгрузка документов",
+               description = "Потоковая выгрузка всех документов, подходящих под фильтры поиска, в формате NDJSON или CSV."
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(DocumentSearchFilter filter,
+                                                                 @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        documentExportService.validate(filter);
+        StreamingResponseBody body = output -> documentExportService.export(filter, format, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"documents." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Статистика документов",
+               description = "Количество документов по статусам и пропускная способность по дням (с фильтром по автору и периоду). "
+                       + "Строится по инкрементальным счетчикам без сканирования таблицы документов."
+    )
+    @GetMapping("/stats")
+    public DocumentStatsDto getStats(@RequestParam(required = false) String author,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return documentService.getStats(author, from, to);
     }
 
     @Operation(summary = "Получить документ",
-               description = "Возвращает документ и полную историю его изменений по UUID."
+               description = "Возвращает документ и полную историю его изменений по UUID. "
+                       + "Ответ содержит ETag \"<id>:<version>\"; при совпадении If-None-Match возвращается 304 без загрузки истории."
     )
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = Document.class)))
     @GetMapping("/{id}")
-    public ResponseEntity<Document> getDocument(@PathVariable UUID id) {
-        return documentService.getDocumentWithHistory(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<byte[]> getDocument(@PathVariable UUID id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = documentService.getDocumentVersion(id);
+            if (version.isPresent()) {
+                String etag = DocumentETags.of(id, version.get());
+                if (DocumentETags.matchesNoneMatch(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+                }
+            }
+        }
+
+        return documentService.getDocumentView(id)
+                .map(view -> ResponseEntity.ok()
+                        .eTag(DocumentETags.of(view.getId(), view.getVersion()))
+                        .cacheControl(CacheControl.noCache())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(view.getJson()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Тест Optimistic Locking",
-               description = "Технический эндпоинт для эмуляции конкурентного доступа (многопоточного утверждения документа)."
+               description = "Технический эндпоинт для эмуляции конкурентного доступа (многопоточного утверждения документа). "
+                       + "Параметр strategy задает стратегию блокировки (по умолчанию - app.locking.strategy)."
     )
     @PostMapping("/{id}/concurrency-test")
     public ConcurrencyReportDto testConcurrency(@PathVariable UUID id,
                                                 @RequestParam(defaultValue = "5") int threads,
-                                                @RequestParam(defaultValue = "10") int attempts) {
-        return documentService.testConcurrency(id, threads, attempts);
+                                                @RequestParam(defaultValue = "10") int attempts,
+                                                @RequestParam(required = false) LockingStrategy strategy) {
+        return documentService.testConcurrency(id, threads, attempts, strategy != null ? strategy : defaultLockingStrategy);
+    }
+
+    @Operation(summary = "Сравнение стратегий блокировки",
+               description = "Технический эндпоинт: для каждой стратегии создает набор документов и выполняет над ними "
+                       + "конкурентную смесь submit/approve. Возвращает пропускную способность, перцентили задержки, "
+                       + "конфликты и повторы по каждой стратегии. Для чистого сравнения отключите фоновые воркеры."
+    )
+    @PostMapping("/concurrency-benchmark")
+    public List<LockingStrategyReportDto> benchmarkLocking(@Valid @RequestBody ConcurrencyBenchmarkRequest request) {
+        return lockingBenchmark.run(request);
     }
 
     @Operation(summary = "Создать документ",
@@ -73,27 +201,96 @@ public class DocumentController {
         return documentService.createDocument(request.getAuthor(), request.getTitle());
     }
 
+    @Operation(summary = "Массовая загрузка документов",
+               description = "Потоковая загрузка документов в статусе DRAFT из тела запроса в формате NDJSON "
+                       + "({\"author\": ..., \"title\": ...} на строку) или CSV (author,title). "
+                       + "Запись выполняется порциями через COPY; невалидные строки возвращаются в отчете."
+    )
+    @PostMapping("/import")
+    public ImportReportDto importDocuments(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                           InputStream body) {
+        return documentImportService.importDocuments(body, format);
+    }
+
     @Operation(summary = "Пакетное получение",
-               description = "Возвращает список документов по массиву идентификаторов."
+               description = "Возвращает документы с историей по массиву идентификаторов в порядке запроса; "
+                       + "ненайденные документы отмечаются результатом NOT_FOUND. Размер запроса ограничен app.batch-get.max-ids. "
+                       + "ETag ответа строится по версиям документов; при совпадении If-None-Match возвращается 304."
     )
     @PostMapping("/batch-get")
-    public List<Document> getDocumentsByIds(@RequestBody List<UUID> ids) {
-        return documentService.getDocumentsByIds(ids);
+    public ResponseEntity<List<BatchGetItemDto>> getDocumentsByIds(@RequestBody List<UUID> ids,
+                                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = DocumentETags.ofBatch(ids, documentService.getDocumentVersions(ids));
+            if (DocumentETags.matchesNoneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+            }
+        }
+
+        List<BatchGetItemDto> items = documentService.getDocumentsByIds(ids);
+        Map<UUID, Long> versions = new HashMap<>();
+        for (BatchGetItemDto item : items) {
+            if (item.getDocument() != null) {
+                Long version = item.getDocument().getVersion();
+                versions.put(item.getId(), version != null ? version : 0L);
+            }
+        }
+
+        return ResponseEntity.ok()
+                .eTag(DocumentETags.ofBatch(ids, versions))
+                .cacheControl(CacheControl.noCache())
+                .body(items);
     }
 
     @Operation(summary = "Отправить на согласование (Batch)",
-               description = "Пакетный перевод документов из DRAFT в SUBMITTED."
+               description = "Пакетный перевод документов из DRAFT в SUBMITTED. "
+                       + "В If-Match можно передать ETag документов (\"<id>:<version>\"): документы с другой версией "
+                       + "получают результат PRECONDITION_FAILED."
     )
     @PostMapping("/submit")
-    public Map<UUID, String> submitBatch(@Valid @RequestBody BatchActionRequest request) {
-        return documentService.submitBatch(request.getDocumentIds(), request.getInitiator());
+    public Map<UUID, String> submitBatch(@Valid @RequestBody BatchActionRequest request,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return documentService.submitBatch(request.getDocumentIds(), request.getInitiator(), DocumentETags.parseIfMatch(ifMatch));
     }
 
     @Operation(summary = "Утвердить документы (Batch)",
-               description = "Пакетный перевод документов из SUBMITTED в APPROVED с занесением в реестр."
+               description = "Пакетный перевод документов из SUBMITTED в APPROVED с занесением в реестр. "
+                       + "В If-Match можно передать ETag документов (\"<id>:<version>\"): документы с другой версией "
+                       + "получают результат PRECONDITION_FAILED."
     )
     @PostMapping("/approve")
-    public Map<UUID, String> approveBatch(@Valid @RequestBody BatchActionRequest request) {
-        return documentService.approveBatch(request.getDocumentIds(), request.getInitiator());
+    public Map<UUID, String> approveBatch(@Valid @RequestBody BatchActionRequest request,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return documentService.approveBatch(request.getDocumentIds(), request.getInitiator(), DocumentETags.parseIfMatch(ifMatch));
+    }
+
+    @Operation(summary = "Отправить на согласование (асинхронно)",
+               description = "Принимает пакет любого размера (до app.batch-jobs.max-ids) и сразу возвращает задание; "
+                       + "документы обрабатываются порциями в фоне. Прогресс и результаты - по /api/v1/batch-jobs/{id}. "
+                       + "If-Match обрабатывается так же, как в синхронном /submit."
+    )
+    @PostMapping("/submit/async")
+    public ResponseEntity<BatchJobDto> submitBatchAsync(@Valid @RequestBody BatchActionRequest request,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return accepted(batchJobService.createJob(DocumentAction.SUBMIT, request.getDocumentIds(), request.getInitiator(),
+                DocumentETags.parseIfMatch(ifMatch)));
+    }
+
+    @Operation(summary = "Утвердить документы (асинхронно)",
+               description = "Принимает пакет любого размера (до app.batch-jobs.max-ids) и сразу возвращает задание; "
+                       + "документы утверждаются порциями в фоне. Прогресс и результаты - по /api/v1/batch-jobs/{id}. "
+                       + "If-Match обрабатывается так же, как в синхронном /approve."
+    )
+    @PostMapping("/approve/async")
+    public ResponseEntity<BatchJobDto> approveBatchAsync(@Valid @RequestBody BatchActionRequest request,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return accepted(batchJobService.createJob(DocumentAction.APPROVE, request.getDocumentIds(), request.getInitiator(),
+                DocumentETags.parseIfMatch(ifMatch)));
+    }
+
+    private ResponseEntity<BatchJobDto> accepted(BatchJobDto job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/batch-jobs/" + job.getId()))
+                .body(job);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package example.docs.controller;
+
+import example.docs.exception.InvalidETagException;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Построение и разбор ETag документов.
+ * <p>
+ * ETag документа - строгий тег {@code "<id>:<version>"}, поэтому клиент может передать его
+ * в If-Match как ожидаемую версию конкретного документа. ETag набора документов - MD5 от
+ * пар (id, version) в порядке запроса, включая отметки ненайденных документов: ответ пакетного
+ * получения повторяет порядок и повторы идентификаторов запроса, поэтому тег от него и зависит.
+ */
+final class DocumentETags {
+
+    private DocumentETags() {
+    }
+
+    static String of(UUID id, Long version) {
+        return "\"" + id + ":" + (version != null ? version : 0) + "\"";
+    }
+
+    static String ofBatch(List<UUID> ids, Map<UUID, Long> versions) {
+        StringBuilder sb = new StringBuilder();
+        for (UUID id : ids) {
+            Long version = versions.get(id);
+            sb.append(id).append(':').append(version != null ? version.toString() : "NOT_FOUND").append(';');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Проверка If-None-Match (слабое сравнение): совпадает ли хотя бы один из тегов заголовка с текущим.
+     */
+    static boolean matchesNoneMatch(String header, String etag) {
+        for (String tag : header.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Разбирает If-Match в ожидаемые версии документов. Пустой заголовок и {@code *} означают отсутствие условий.
+     *
+     * @param header значение заголовка If-Match
+     * @return ожидаемая версия по идентификатору документа
+     */
+    static Map<UUID, Long> parseIfMatch(String header) {
+        Map<UUID, Long> expected = new HashMap<>();
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return expected;
+        }
+        for (String tag : header.split(",")) {
+            String trimmed = tag.trim();
+            int separator = trimmed.lastIndexOf(':');
+            if (trimmed.startsWith("W/") || trimmed.length() < 2 || !trimmed.startsWith("\"") || !trimmed.endsWith("\"") || separator < 0) {
+                throw new InvalidETagException("If-Match must contain strong document ETags \"<id>:<version>\", got " + trimmed);
+            }
+            try {
+                expected.put(UUID.fromString(trimmed.substring(1, separator)),
+                        Long.parseLong(trimmed.substring(separator + 1, trimmed.length() - 1)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidETagException("Malformed document ETag in If-Match: " + trimmed);
+            }
+        }
+        return expected;
+    }
+}
@@ -0,0 +1,58 @@
+package example.docs.controller;
+
+import example.docs.dto.JournalInfoDto;
+import example.docs.journal.RegistryJournal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+
+@Tag(name = "Реестр", description = "Последовательное чтение журнала утвержденных документов")
+@RestController
+@RequestMapping("/api/v1/registry")
+@RequiredArgsConstructor
+public class RegistryController {
+
+    private final RegistryJournal registryJournal;
+
+    @Value("${app.registry.journal.max-read-records:1000000}")
+    private int maxReadRecords;
+
+    @Operation(summary = "Состояние журнала реестра",
+               description = "Номера первой и последней записи журнала на этом узле и размер записи."
+    )
+    @GetMapping("/journal/info")
+    public JournalInfoDto getJournalInfo() {
+        return registryJournal.info();
+    }
+
+    @Operation(summary = "Чтение журнала реестра",
+               description = "Возвращает записи журнала начиная с fromSeq (не более limit) в двоичном виде: "
+                       + "записи по 48 байт (big-endian) - seq, id записи реестра, id документа, время регистрации (мс с эпохи). "
+                       + "Номер последней отданной записи возвращается в заголовке X-Journal-Last-Seq; "
+                       + "следующий запрос продолжает с X-Journal-Last-Seq + 1. Данные читаются из файлов журнала без обращения к базе."
+    )
+    @GetMapping(value = "/journal", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> readJournal(@RequestParam(defaultValue = "1") long fromSeq,
+                                                             @RequestParam(defaultValue = "10000") int limit) {
+        RegistryJournal.JournalRange range = registryJournal.range(fromSeq, Math.min(limit, maxReadRecords));
+        StreamingResponseBody body = output -> registryJournal.transferTo(range, Channels.newChannel(output));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(range.length())
+                .header("X-Journal-First-Seq", String.valueOf(range.getFirstSeq()))
+                .header("X-Journal-Last-Seq", String.valueOf(range.count() > 0 ? range.getLastSeq() : range.getFirstSeq() - 1))
+                .header("X-Journal-Record-Size", String.valueOf(RegistryJournal.RECORD_SIZE))
+                .body(body);
+    }
+}
@@ -0,0 +1,26 @@
+package example.docs.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат пакетного получения для одного запрошенного идентификатора")
+public class BatchGetItemDto {
+
+    @Schema(description = "Запрошенный идентификатор", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+
+    @Schema(description = "Результат: FOUND или NOT_FOUND", example = "FOUND")
+    private String result;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Документ с историей изменений (отсутствует, если документ не найден)")
+    private DocumentSummaryDto document;
+}
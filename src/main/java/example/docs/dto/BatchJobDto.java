@@ -0,0 +1,55 @@
+package example.docs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Состояние асинхронного пакетного задания")
+public class BatchJobDto {
+
+    @Schema(description = "Идентификатор задания", example = "018f3a1c-7e2b-7c4d-9a10-3b5e6f7a8b9c")
+    private UUID id;
+
+    @Schema(description = "Операция: SUBMIT или APPROVE", example = "APPROVE")
+    private String action;
+
+    @Schema(description = "Инициатор операции", example = "admin_user")
+    private String initiator;
+
+    @Schema(description = "Состояние: PENDING, RUNNING, COMPLETED или FAILED", example = "RUNNING")
+    private BatchJobStatus status;
+
+    @Schema(description = "Количество документов в задании", example = "50000")
+    private int total;
+
+    @Schema(description = "Количество обработанных документов", example = "12000")
+    private int processed;
+
+    @Schema(description = "Количество документов с результатом SUCCESS", example = "11990")
+    private int succeeded;
+
+    @Schema(description = "Количество документов с другими результатами", example = "10")
+    private int failed;
+
+    @Schema(description = "Время создания задания", example = "2026-02-01T10:00:00")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Время последнего обновления прогресса", example = "2026-02-01T10:01:30")
+    private LocalDateTime updatedAt;
+
+    @Schema(description = "Время завершения (null, если задание еще выполняется)", example = "2026-02-01T10:04:10")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Количество захватов задания подряд без прогресса (неудачных попыток обработки порции)", example = "0")
+    private int attempts;
+
+    @Schema(description = "Последняя ошибка обработки порции (null, если ошибок не было)")
+    private String lastError;
+}
@@ -0,0 +1,24 @@
+package example.docs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат обработки одного документа асинхронного задания")
+public class BatchJobItemDto {
+
+    @Schema(description = "Позиция документа в исходном запросе (с нуля)", example = "0")
+    private int position;
+
+    @Schema(description = "Идентификатор документа", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID documentId;
+
+    @Schema(description = "Результат (SUCCESS, CONFLICT, NOT_FOUND, ...); null, если документ еще не обработан", example = "SUCCESS")
+    private String result;
+}
@@ -0,0 +1,15 @@
+package example.docs.dto;
+
+/**
+ * Состояние асинхронного пакетного задания.
+ */
+public enum BatchJobStatus {
+    /** Задание принято и ожидает обработки. */
+    PENDING,
+    /** Задание обрабатывается порциями (или будет продолжено после истечения аренды). */
+    RUNNING,
+    /** Все элементы задания обработаны. */
+    COMPLETED,
+    /** Обработка прекращена: порция падала при каждой из app.batch-jobs.max-attempts попыток; необработанные элементы остаются без результата. */
+    FAILED
+}
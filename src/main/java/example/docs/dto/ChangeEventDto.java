@@ -0,0 +1,41 @@
+package example.docs.dto;
+
+import example.docs.entity.DocumentAction;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Событие ленты изменений: закоммиченная запись истории документа")
+public class ChangeEventDto {
+
+    @Schema(description = "Смещение события в ленте (возрастает; продолжение чтения - с последнего полученного)", example = "1024")
+    private long seq;
+
+    @Schema(description = "Идентификатор записи истории", example = "123e4567-e89b-12d3-a456-426614174001")
+    private UUID historyId;
+
+    @Schema(description = "Идентификатор документа", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID documentId;
+
+    @Schema(description = "Уникальный номер документа", example = "DOC-000000000042")
+    private String uniqueNumber;
+
+    @Schema(description = "Действие", example = "APPROVE")
+    private DocumentAction action;
+
+    @Schema(description = "Инициатор действия", example = "APPROVE-WORKER")
+    private String initiator;
+
+    @Schema(description = "Комментарий", example = "Document approved")
+    private String comment;
+
+    @Schema(description = "Дата действия")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,37 @@
+package example.docs.dto;
+
+import example.docs.service.LockingStrategy;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Параметры сравнения стратегий блокировки под конкурентной нагрузкой")
+public class ConcurrencyBenchmarkRequest {
+
+    @Schema(description = "Сравниваемые стратегии (по умолчанию - все)", example = "[\"OPTIMISTIC\", \"CONDITIONAL_UPDATE\"]")
+    private List<LockingStrategy> strategies;
+
+    @Min(1)
+    @Max(10000)
+    @Schema(description = "Количество документов, создаваемых для каждой стратегии; чем меньше, тем выше конкуренция", example = "100")
+    private int documents = 100;
+
+    @Min(1)
+    @Max(64)
+    @Schema(description = "Количество конкурентных потоков", example = "8")
+    private int threads = 8;
+
+    @Min(1)
+    @Max(1000000)
+    @Schema(description = "Количество операций на каждую стратегию", example = "2000")
+    private int operations = 2000;
+
+    @Min(0)
+    @Max(10)
+    @Schema(description = "Количество повторов операции после отказа блокировки", example = "3")
+    private int maxRetries = 3;
+}
@@ -0,0 +1,23 @@
+package example.docs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Страница результатов с курсорной (keyset) пагинацией")
+public class CursorPageDto<T> {
+
+    @Schema(description = "Элементы текущей страницы")
+    private List<T> items;
+
+    @Schema(description = "Непрозрачный токен для запроса следующей страницы; null, если страниц больше нет",
+            example = "MjAyNi0wMi0wMVQxMDowMDowMHwxMjNlNDU2Ny1lODliLTEyZDMtYTQ1Ni00MjY2MTQxNzQwMDB8REVTQw")
+    private String nextCursor;
+
+    @Schema(description = "Признак наличия следующей страницы", example = "true")
+    private boolean hasNext;
+}
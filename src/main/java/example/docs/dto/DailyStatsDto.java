@@ -0,0 +1,27 @@
+package example.docs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Пропускная способность жизненного цикла документов за один день")
+public class DailyStatsDto {
+
+    @Schema(description = "День", example = "2026-02-01")
+    private LocalDate day;
+
+    @Schema(description = "Создано документов", example = "1200")
+    private long created;
+
+    @Schema(description = "Отправлено на согласование", example = "1150")
+    private long submitted;
+
+    @Schema(description = "Утверждено", example = "1100")
+    private long approved;
+}
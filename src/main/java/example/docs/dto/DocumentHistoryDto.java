@@ -0,0 +1,32 @@
+package example.docs.dto;
+
+import example.docs.entity.DocumentAction;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Запись истории изменения статуса документа")
+public class DocumentHistoryDto {
+
+    @Schema(description = "Идентификатор записи", example = "123e4567-e89b-12d3-a456-426614174001")
+    private UUID id;
+
+    @Schema(description = "Инициатор действия", example = "SUBMIT-WORKER")
+    private String initiator;
+
+    @Schema(description = "Действие", example = "SUBMIT")
+    private DocumentAction action;
+
+    @Schema(description = "Дата действия")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Комментарий", example = "Sent for approval")
+    private String comment;
+}
@@ -0,0 +1,37 @@
+package example.docs.dto;
+
+import example.docs.entity.DocumentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Набор фильтров поиска документов")
+public class DocumentSearchFilter {
+
+    @Schema(description = "Целевой статус", example = "APPROVED")
+    private DocumentStatus status;
+
+    @Schema(description = "Точное совпадение по автору", example = "Author-1")
+    private String author;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Начало периода создания", example = "2026-02-01T00:00:00")
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Конец периода создания", example = "2026-02-28T23:59:59")
+    private LocalDateTime to;
+
+    @Schema(description = "Подстрока названия без учета регистра (не короче 3 символов)", example = "договор")
+    private String titleContains;
+
+    @Schema(description = "Подстрока имени автора без учета регистра (не короче 3 символов)", example = "ivanov")
+    private String authorContains;
+}
@@ -0,0 +1,33 @@
+package example.docs.dto;
+
+import example.docs.entity.DocumentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Статистика документов, построенная по инкрементальным счетчикам")
+public class DocumentStatsDto {
+
+    @Schema(description = "Автор, по которому построена статистика (null - все авторы)", example = "Author-1")
+    private String author;
+
+    @Schema(description = "Начало периода", example = "2026-02-01")
+    private LocalDate from;
+
+    @Schema(description = "Конец периода", example = "2026-02-28")
+    private LocalDate to;
+
+    @Schema(description = "Количество документов в каждом статусе (для периода - среди созданных в этот период)")
+    private Map<DocumentStatus, Long> byStatus;
+
+    @Schema(description = "Созданные и переведенные по статусам документы по дням периода")
+    private List<DailyStatsDto> daily;
+}
@@ -0,0 +1,55 @@
+package example.docs.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import example.docs.entity.DocumentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Плоское представление документа (история - по запросу)")
+public class DocumentSummaryDto {
+
+    @Schema(description = "Идентификатор документа", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+
+    @Schema(description = "Уникальный номер документа", example = "DOC-1A2B3C4D")
+    private String uniqueNumber;
+
+    @Schema(description = "Автор документа", example = "Иван Иванов")
+    private String author;
+
+    @Schema(description = "Название документа", example = "Годовой отчет 2026")
+    private String title;
+
+    @Schema(description = "Текущий статус", example = "APPROVED")
+    private DocumentStatus status;
+
+    @Schema(description = "Дата создания")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Дата последнего изменения")
+    private LocalDateTime updatedAt;
+
+    @Schema(description = "Версия документа (optimistic locking)", example = "2")
+    private Long version;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "История изменений (только при include=history)")
+    private List<DocumentHistoryDto> history;
+
+    /**
+     * Конструктор для выборки проекции напрямую запросом (без истории).
+     */
+    public DocumentSummaryDto(UUID id, String uniqueNumber, String author, String title, DocumentStatus status,
+                              LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, uniqueNumber, author, title, status, createdAt, updatedAt, version, null);
+    }
+}
@@ -0,0 +1,19 @@
+package example.docs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Отклоненная строка массовой загрузки")
+public class ImportRejectDto {
+
+    @Schema(description = "Номер строки во входных данных (начиная с 1)", example = "42")
+    private long line;
+
+    @Schema(description = "Причина отклонения", example = "author: Автор не может быть пустым")
+    private String reason;
+}
@@ -0,0 +1,27 @@
+package example.docs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат массовой загрузки документов")
+public class ImportReportDto {
+
+    @Schema(description = "Количество загруженных документов", example = "999998")
+    private long imported;
+
+    @Schema(description = "Количество отклоненных строк", example = "2")
+    private long rejected;
+
+    @Schema(description = "Время выполнения в миллисекундах", example = "41250")
+    private long executionTimeMs;
+
+    @Schema(description = "Отклоненные строки (не более app.import.max-reported-rejects)")
+    private List<ImportRejectDto> rejects;
+}
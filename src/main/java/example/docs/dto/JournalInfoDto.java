@@ -0,0 +1,25 @@
+package example.docs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Состояние журнала реестра на текущем узле")
+public class JournalInfoDto {
+
+    @Schema(description = "Порядковый номер первой записи журнала (0, если журнал пуст)", example = "1")
+    private long firstSeq;
+
+    @Schema(description = "Порядковый номер последней записанной записи (0, если журнал пуст)", example = "250000")
+    private long lastSeq;
+
+    @Schema(description = "Размер одной записи в байтах", example = "48")
+    private int recordSize;
+
+    @Schema(description = "Количество сегментов журнала", example = "1")
+    private int segments;
+}
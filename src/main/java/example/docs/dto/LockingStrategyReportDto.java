@@ -0,0 +1,49 @@
+package example.docs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результаты одной стратегии блокировки в сравнении под конкурентной нагрузкой")
+public class LockingStrategyReportDto {
+
+    @Schema(description = "Стратегия блокировки", example = "CONDITIONAL_UPDATE")
+    private String strategy;
+
+    @Schema(description = "Количество выполненных операций", example = "2000")
+    private int operations;
+
+    @Schema(description = "Успешные смены статуса", example = "180")
+    private int succeeded;
+
+    @Schema(description = "Отказы из-за статуса документа (переход уже выполнен или еще невозможен)", example = "1815")
+    private int conflicts;
+
+    @Schema(description = "Операции, не выполненные из-за блокировки после всех повторов", example = "5")
+    private int lockFailures;
+
+    @Schema(description = "Повторы после отказа блокировки (оптимистичной или NOWAIT)", example = "42")
+    private int retries;
+
+    @Schema(description = "Непредвиденные ошибки", example = "0")
+    private int errors;
+
+    @Schema(description = "Пропускная способность, операций в секунду", example = "1250.5")
+    private double throughputPerSecond;
+
+    @Schema(description = "Медиана задержки операции с учетом повторов, мс", example = "4.2")
+    private double p50Ms;
+
+    @Schema(description = "95-й перцентиль задержки, мс", example = "11.8")
+    private double p95Ms;
+
+    @Schema(description = "99-й перцентиль задержки, мс", example = "19.3")
+    private double p99Ms;
+
+    @Schema(description = "Максимальная задержка, мс", example = "42.0")
+    private double maxMs;
+}
@@ -1,5 +1,7 @@
 package example.docs.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import example.docs.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -27,7 +29,7 @@ import java.util.UUID;
 public class Document {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, unique = true) // Генерация UUID или sequence
@@ -48,6 +50,16 @@ public class Document {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Узел, арендовавший документ для фоновой обработки, и срок аренды (см. DocumentRepository.claimDraftBatch).
+     * Смена статуса снимает аренду, чтобы документ сразу стал доступен очереди следующего статуса.
+     */
+    @JsonIgnore
+    private String claimedBy;
+
+    @JsonIgnore
+    private LocalDateTime leaseUntil;
+
     /**
      * Поле для контроля версий при конкурентном доступе.
      * Защищает от перезаписи данных при одновременном утверждении документа разными потоками.
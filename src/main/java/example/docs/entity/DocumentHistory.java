@@ -1,6 +1,7 @@
 package example.docs.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import example.docs.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -24,7 +25,7 @@ import java.util.UUID;
 public class DocumentHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @JsonIgnore
@@ -1,5 +1,6 @@
 package example.docs.entity;
 
+import example.docs.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -22,7 +23,7 @@ import java.util.UUID;
 public class RegistryEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @OneToOne(fetch = FetchType.LAZY)
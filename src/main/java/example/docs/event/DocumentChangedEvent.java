@@ -0,0 +1,18 @@
+package example.docs.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Событие об изменении документов (смене статуса, пополнении истории).
+ * Публикуется внутри изменившей их транзакции; кэши сбрасывают документы после ее коммита.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DocumentChangedEvent {
+
+    private final Collection<UUID> documentIds;
+}
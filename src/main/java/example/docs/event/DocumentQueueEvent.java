@@ -0,0 +1,16 @@
+package example.docs.event;
+
+import example.docs.entity.DocumentStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Событие о появлении документов, ожидающих обработки в очереди заданного статуса.
+ * Публикуется внутри транзакции, создавшей или изменившей документы, и доставляется слушателям после коммита.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DocumentQueueEvent {
+
+    private final DocumentStatus status;
+}
@@ -0,0 +1,27 @@
+package example.docs.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Событие о внесении документов в реестр.
+ * Публикуется внутри утверждающей транзакции; журнал реестра дописывает записи после ее коммита.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DocumentsRegisteredEvent {
+
+    private final List<Entry> entries;
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final UUID entryId;
+        private final UUID documentId;
+        private final LocalDateTime registeredAt;
+    }
+}
@@ -0,0 +1,168 @@
+package example.docs.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Шина межузловых уведомлений на основе PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Отправка выполняется через {@code pg_notify} в текущей транзакции, поэтому получатели
+ * узнают об изменении только после его коммита. Прием ведется в отдельном потоке
+ * через выделенное соединение вне пула Hikari; при обрыве соединение переподключается.
+ */
+@Slf4j
+@Component
+public class PgNotificationBus implements SmartLifecycle {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final long pollTimeoutMs;
+
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PgNotificationBus(JdbcTemplate jdbcTemplate,
+                             DataSourceProperties dataSourceProperties,
+                             @Value("${app.notify.enabled:true}") boolean enabled,
+                             @Value("${app.notify.poll-timeout-ms:500}") long pollTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    /**
+     * Подписывает обработчик на канал. Обработчик вызывается в потоке слушателя и не должен блокироваться.
+     *
+     * @param channel имя канала (строчные латинские буквы, цифры и подчеркивания)
+     * @param handler обработчик полезной нагрузки уведомления
+     */
+    public void subscribe(String channel, Consumer<String> handler) {
+        validateChannel(channel);
+        handlers.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Отправляет уведомление в канал. Внутри транзакции уведомление будет доставлено после коммита.
+     *
+     * @param channel имя канала
+     * @param payload полезная нагрузка
+     */
+    public void publish(String channel, String payload) {
+        if (!enabled) {
+            return;
+        }
+        validateChannel(channel);
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "pg-notify-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                Set<String> listening = ConcurrentHashMap.newKeySet();
+                log.info("PostgreSQL notification listener connected");
+
+                while (running) {
+                    for (String channel : handlers.keySet()) {
+                        if (listening.add(channel)) {
+                            try (Statement statement = connection.createStatement()) {
+                                statement.execute("LISTEN " + channel);
+                            }
+                        }
+                    }
+
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getName(), notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("PostgreSQL notification listener failed, reconnecting: {}", e.getMessage());
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        for (Consumer<String> handler : handlers.getOrDefault(channel, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (Exception e) {
+                log.error("Notification handler for channel {} failed", channel, e);
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void validateChannel(String channel) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package example.docs.exception;
+
+public class ChangeFeedUnavailableException extends RuntimeException {
+    public ChangeFeedUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -24,6 +24,48 @@ public class GlobalExceptionHandler {
                 .body(new ApiError("VALIDATION_ERROR", errorMessage));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiError> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ApiError("INVALID_CURSOR", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidSearchException.class)
+    public ResponseEntity<ApiError> handleInvalidSearch(InvalidSearchException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ApiError("INVALID_SEARCH", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidETagException.class)
+    public ResponseEntity<ApiError> handleInvalidETag(InvalidETagException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ApiError("INVALID_ETAG", ex.getMessage()));
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<ApiError> handleBatchTooLarge(BatchTooLargeException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ApiError("BATCH_TOO_LARGE", ex.getMessage()));
+    }
+
+    @ExceptionHandler(JournalUnavailableException.class)
+    public ResponseEntity<ApiError> handleJournalUnavailable(JournalUnavailableException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ApiError("JOURNAL_UNAVAILABLE", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ChangeFeedUnavailableException.class)
+    public ResponseEntity<ApiError> handleChangeFeedUnavailable(ChangeFeedUnavailableException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ApiError("CHANGE_FEED_UNAVAILABLE", ex.getMessage()));
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiError> handleNotFound(EntityNotFoundException ex) {
         return ResponseEntity
@@ -0,0 +1,7 @@
+package example.docs.exception;
+
+public class InvalidETagException extends RuntimeException {
+    public InvalidETagException(String message) {
+        super(message);
+    }
+}
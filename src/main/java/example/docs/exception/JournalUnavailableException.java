@@ -0,0 +1,7 @@
+package example.docs.exception;
+
+public class JournalUnavailableException extends RuntimeException {
+    public JournalUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,105 @@
+package example.docs.id;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Генератор уникальных номеров документов (например, DOC-000000001001).
+ * <p>
+ * Номера резервируются в последовательности document_number_seq блоками по INCREMENT BY
+ * (hi/lo: nextval возвращает первый номер блока) и раздаются из памяти без блокировок,
+ * поэтому создание документа не требует отдельного запроса к базе, номера не пересекаются
+ * между узлами и монотонно растут в пределах узла. Базе достается один запрос на блок.
+ * <p>
+ * Размер блока задается app.numbers.block-size: при старте шаг последовательности
+ * увеличивается до заданного значения, уменьшение не выполняется.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentNumberGenerator {
+
+    private static final String SEQUENCE = "document_number_seq";
+
+    private static final Block EMPTY = new Block(0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicReference<Block> current = new AtomicReference<>(EMPTY);
+
+    @Value("${app.numbers.block-size:1000}")
+    private long blockSize;
+
+    @Value("${app.numbers.format:DOC-%012d}")
+    private String format;
+
+    /**
+     * Выдает следующий уникальный номер документа.
+     */
+    public String next() {
+        return String.format(format, nextValue());
+    }
+
+    /**
+     * Выдает следующее значение последовательности из текущего блока; при исчерпании блока
+     * резервирует новый (единственный путь, требующий синхронизации и запроса к базе).
+     */
+    public long nextValue() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            synchronized (this) {
+                if (current.get() == block) {
+                    current.set(allocate());
+                }
+            }
+        }
+    }
+
+    private Block allocate() {
+        // Шаг читается тем же запросом, что и nextval: если он увеличен параллельно,
+        // блок окажется лишь меньше фактически зарезервированного, но не пересечется с чужим
+        return jdbcTemplate.queryForObject(
+                "SELECT nextval('" + SEQUENCE + "'), (SELECT increment_by FROM pg_sequences WHERE sequencename = ?)",
+                (rs, rowNum) -> new Block(rs.getLong(1), rs.getLong(1) + rs.getLong(2)),
+                SEQUENCE);
+    }
+
+    /**
+     * Увеличивает шаг последовательности до app.numbers.block-size.
+     * Выполняется при старте вне транзакций, чтобы откат бизнес-транзакции не мог вернуть старый шаг.
+     */
+    @PostConstruct
+    void ensureIncrement() {
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = ?", Long.class, SEQUENCE);
+        if (increment == null || blockSize <= increment) {
+            if (increment != null && blockSize < increment) {
+                log.warn("Document number block size {} is smaller than sequence increment {}, keeping {}",
+                        blockSize, increment, increment);
+            }
+            return;
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " INCREMENT BY " + blockSize);
+        log.info("Document number sequence increment raised from {} to {}", increment, blockSize);
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
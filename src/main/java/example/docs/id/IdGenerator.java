@@ -0,0 +1,27 @@
+package example.docs.id;
+
+import java.util.UUID;
+
+/**
+ * Единая точка генерации идентификаторов для сущностей и пакетных JDBC-вставок.
+ * Алгоритм выбирается при старте приложения (см. {@code app.ids.uuid-version}).
+ */
+public final class IdGenerator {
+
+    private static volatile UuidVersion version = UuidVersion.V7;
+
+    private IdGenerator() {
+    }
+
+    public static UUID next() {
+        return version.generate();
+    }
+
+    public static UuidVersion getVersion() {
+        return version;
+    }
+
+    public static void setVersion(UuidVersion newVersion) {
+        version = newVersion;
+    }
+}
@@ -0,0 +1,45 @@
+package example.docs.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор UUID версии 7 (RFC 9562).
+ * <p>
+ * Старшие 48 бит содержат время в миллисекундах, следующие 12 бит (rand_a) используются
+ * как счетчик внутри миллисекунды, поэтому идентификаторы, выданные одним процессом,
+ * строго монотонны даже при генерации тысяч значений в миллисекунду (переполнение счетчика
+ * переносится в поле времени). Младшие 62 бита заполняются случайными значениями.
+ */
+public final class UuidV7 {
+
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long timestampAndCounter = nextTimestampAndCounter();
+
+        long mostSigBits = ((timestampAndCounter >>> 12) << 16)
+                | 0x7000L
+                | (timestampAndCounter & 0x0FFFL);
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static long nextTimestampAndCounter() {
+        while (true) {
+            long previous = LAST_TIMESTAMP_AND_COUNTER.get();
+            long candidate = System.currentTimeMillis() << 12;
+            if (candidate <= previous) {
+                candidate = previous + 1;
+            }
+            if (LAST_TIMESTAMP_AND_COUNTER.compareAndSet(previous, candidate)) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package example.docs.id;
+
+import java.util.UUID;
+
+/**
+ * Поддерживаемые алгоритмы генерации идентификаторов сущностей.
+ */
+public enum UuidVersion {
+
+    /**
+     * Случайный UUID (RFC 9562, версия 4). Каждая вставка попадает в случайный лист B-дерева первичного ключа.
+     */
+    V4 {
+        @Override
+        public UUID generate() {
+            return UUID.randomUUID();
+        }
+    },
+
+    /**
+     * Упорядоченный по времени UUID (RFC 9562, версия 7). Новые ключи дописываются в правый край индекса.
+     */
+    V7 {
+        @Override
+        public UUID generate() {
+            return UuidV7.next();
+        }
+    };
+
+    public abstract UUID generate();
+}
@@ -0,0 +1,151 @@
+package example.docs.journal;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Сегмент журнала реестра: файл из фиксированного числа записей по {@link RegistryJournal#RECORD_SIZE} байт.
+ * <p>
+ * Файл создается сразу полного размера и отображается в память целиком; смещение записи с номером seq
+ * вычисляется как (seq - baseSeq) * RECORD_SIZE, поэтому отдельный индекс внутри сегмента не нужен.
+ * Номер записи пишется последним: ненулевой номер означает, что запись полностью заполнена.
+ * Отображение держится только у активного (последнего) сегмента, закрытые сегменты читаются через FileChannel.
+ */
+class JournalSegment {
+
+    @Getter
+    private final Path path;
+
+    @Getter
+    private final long baseSeq;
+
+    @Getter
+    private final int capacity;
+
+    private MappedByteBuffer buffer;
+
+    @Getter
+    private int count;
+
+    private JournalSegment(Path path, long baseSeq, int capacity) {
+        this.path = path;
+        this.baseSeq = baseSeq;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Создает новый сегмент и отображает его в память для записи.
+     */
+    static JournalSegment create(Path path, long baseSeq, int capacity) throws IOException {
+        JournalSegment segment = new JournalSegment(path, baseSeq, capacity);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            segment.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RegistryJournal.RECORD_SIZE);
+        }
+        return segment;
+    }
+
+    /**
+     * Открывает существующий сегмент; емкость определяется размером файла.
+     */
+    static JournalSegment open(Path path, long baseSeq) throws IOException {
+        JournalSegment segment = new JournalSegment(path, baseSeq, (int) (Files.size(path) / RegistryJournal.RECORD_SIZE));
+        segment.count = segment.capacity;
+        return segment;
+    }
+
+    /**
+     * Отображает сегмент в память для дозаписи и находит количество полностью записанных записей.
+     * Сканирование останавливается на первой пустой записи или на записи с неожиданным номером
+     * (страницы, не сброшенные на диск до аварийного останова).
+     */
+    void recover() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RegistryJournal.RECORD_SIZE);
+        }
+        int recovered = 0;
+        while (recovered < capacity && buffer.getLong(recovered * RegistryJournal.RECORD_SIZE) == baseSeq + recovered) {
+            recovered++;
+        }
+        count = recovered;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    long lastSeq() {
+        return baseSeq + count - 1;
+    }
+
+    void append(long seq, UUID entryId, UUID documentId, long registeredAtMillis) {
+        int offset = count * RegistryJournal.RECORD_SIZE;
+        buffer.putLong(offset + 8, entryId.getMostSignificantBits());
+        buffer.putLong(offset + 16, entryId.getLeastSignificantBits());
+        buffer.putLong(offset + 24, documentId.getMostSignificantBits());
+        buffer.putLong(offset + 32, documentId.getLeastSignificantBits());
+        buffer.putLong(offset + 40, registeredAtMillis);
+        buffer.putLong(offset, seq);
+        count++;
+    }
+
+    void force() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Сбрасывает сегмент на диск и освобождает отображение (сегмент становится доступен только для чтения).
+     */
+    void close() {
+        force();
+        buffer = null;
+    }
+
+    /**
+     * Читает записи [fromSeq, toSeq] этого сегмента в буфер кучи (по {@link RegistryJournal#RECORD_SIZE} байт на запись).
+     */
+    ByteBuffer read(long fromSeq, long toSeq) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate((int) ((toSeq - fromSeq + 1) * RegistryJournal.RECORD_SIZE));
+        long position = (fromSeq - baseSeq) * RegistryJournal.RECORD_SIZE;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (records.hasRemaining() && channel.read(records, position + records.position()) > 0) {
+                // дочитываем до заполнения буфера
+            }
+        }
+        return records.flip();
+    }
+
+    /**
+     * Передает записи [fromSeq, toSeq] этого сегмента в канал без копирования в кучу JVM.
+     *
+     * @return количество переданных байт
+     */
+    long transferTo(long fromSeq, long toSeq, WritableByteChannel target) throws IOException {
+        long position = (fromSeq - baseSeq) * RegistryJournal.RECORD_SIZE;
+        long remaining = (toSeq - fromSeq + 1) * RegistryJournal.RECORD_SIZE;
+        long transferred = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+                transferred += written;
+            }
+        }
+        return transferred;
+    }
+}
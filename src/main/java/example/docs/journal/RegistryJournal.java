@@ -0,0 +1,366 @@
+package example.docs.journal;
+
+import example.docs.dto.JournalInfoDto;
+import example.docs.event.DocumentsRegisteredEvent;
+import example.docs.exception.JournalUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Локальный журнал реестра: append-only последовательность записей о внесенных в реестр документах.
+ * <p>
+ * Каждая закоммиченная запись реестра, созданная на этом узле ({@link DocumentsRegisteredEvent}),
+ * дописывается в отображенный в память сегмент фиксированными записями по {@value #RECORD_SIZE} байт
+ * (big-endian): seq, id записи реестра (16 байт), id документа (16 байт), время регистрации (мс с эпохи).
+ * Сегменты называются по номеру первой записи (registry-&lt;baseSeq&gt;.journal) и сменяются по заполнении;
+ * упорядоченная карта baseSeq -&gt; сегмент служит индексом для поиска записи по номеру.
+ * <p>
+ * Диапазон журнала отдается через {@link java.nio.channels.FileChannel#transferTo}, поэтому массовое
+ * чтение реестра - последовательный дисковый ввод-вывод без нагрузки на базу. Журнал производный:
+ * источником истины остается таблица registry_entries. При открытии и затем периодически журнал
+ * догоняет таблицу: дописываются записи, зарегистрированные позже последней записи журнала за вычетом
+ * окна app.registry.journal.catch-up-window и еще отсутствующие в журнале. Так в журнал попадают записи,
+ * не дописанные из-за аварийного останова или ошибки ввода-вывода, и записи других узлов; окно покрывает
+ * транзакции, закоммиченные позже транзакций с более поздним registered_at.
+ */
+@Slf4j
+@Component
+public class RegistryJournal {
+
+    public static final int RECORD_SIZE = 48;
+
+    private static final int CATCH_UP_BATCH = 1000;
+
+    private static final String CATCH_UP_SQL = """
+            SELECT id, document_id, registered_at
+            FROM registry_entries
+            WHERE registered_at >= ?
+            ORDER BY registered_at, id
+            """;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("registry-(\\d{20})\\.journal");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final boolean sync;
+
+    private final long catchUpWindowMs;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentNavigableMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private JournalSegment active;
+    private volatile long lastSeq;
+
+    /**
+     * Записи журнала внутри окна догоняющего чтения: id записи реестра -&gt; время регистрации (мс).
+     */
+    private final Map<UUID, Long> recentEntries = new HashMap<>();
+    private long maxRegisteredAt = Long.MIN_VALUE;
+
+    public RegistryJournal(@Value("${app.registry.journal.enabled:true}") boolean enabled,
+                           @Value("${app.registry.journal.directory:data/registry-journal}") Path directory,
+                           @Value("${app.registry.journal.segment-records:1000000}") int segmentRecords,
+                           @Value("${app.registry.journal.sync:true}") boolean sync,
+                           @Value("${app.registry.journal.catch-up-window:5m}") Duration catchUpWindow,
+                           DataSource dataSource,
+                           PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentRecords = Math.max(1, segmentRecords);
+        this.sync = sync;
+        this.catchUpWindowMs = catchUpWindow.toMillis();
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(CATCH_UP_BATCH);
+        // Транзакция не только для чтения: догоняющее чтение идет с основной базы, на реплике свежих записей может не быть
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    long baseSeq = Long.parseLong(matcher.group(1));
+                    segments.put(baseSeq, JournalSegment.open(path, baseSeq));
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+        } else {
+            active = segments.lastEntry().getValue();
+            active.recover();
+        }
+        lastSeq = active.lastSeq();
+        loadRecentEntries();
+        log.info("Registry journal opened in {}: {} segments, last seq {}", directory.toAbsolutePath(), segments.size(), lastSeq);
+
+        try {
+            catchUp();
+        } catch (IOException | RuntimeException e) {
+            log.error("Registry journal catch-up on open failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Периодически дописывает в журнал записи реестра, которых в нем нет (см. описание класса).
+     */
+    @Scheduled(fixedDelayString = "${app.registry.journal.catch-up-delay:10000}")
+    public void scheduledCatchUp() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            catchUp();
+        } catch (IOException | RuntimeException e) {
+            log.error("Registry journal catch-up failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Читает из registry_entries записи, начиная с (последняя регистрация в журнале - окно), и дописывает
+     * отсутствующие в журнале. Пустой журнал заполняется всем реестром.
+     *
+     * @return количество дописанных записей
+     */
+    synchronized int catchUp() throws IOException {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime from = maxRegisteredAt == Long.MIN_VALUE
+                ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(maxRegisteredAt - catchUpWindowMs), zone);
+
+        List<DocumentsRegisteredEvent.Entry> missing = new ArrayList<>();
+        int[] appended = {0};
+        try {
+            transactionTemplate.executeWithoutResult(status -> cursorJdbcTemplate.query(CATCH_UP_SQL, (RowCallbackHandler) rs -> {
+                UUID entryId = rs.getObject("id", UUID.class);
+                if (!recentEntries.containsKey(entryId)) {
+                    missing.add(new DocumentsRegisteredEvent.Entry(entryId, rs.getObject("document_id", UUID.class),
+                            rs.getTimestamp("registered_at").toLocalDateTime()));
+                }
+                if (missing.size() >= CATCH_UP_BATCH) {
+                    appended[0] += appendMissing(missing);
+                }
+            }, Timestamp.valueOf(from)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        appended[0] += appendMissing(missing);
+
+        if (appended[0] > 0) {
+            log.info("Registry journal caught up {} entries missing from the journal, last seq {}", appended[0], lastSeq);
+        }
+        return appended[0];
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (active != null) {
+            active.close();
+        }
+    }
+
+    /**
+     * Дописывает в журнал записи реестра после коммита создавшей их транзакции.
+     * Ошибка записи журнала не влияет на результат уже закоммиченного утверждения и только логируется.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRegistered(DocumentsRegisteredEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            append(event.getEntries());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to append {} registry entries to journal: {}", event.getEntries().size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Дописывает записи, которых еще нет в журнале: запись, уже дописанная догоняющим чтением, повторно не пишется.
+     *
+     * @return количество дописанных записей
+     */
+    synchronized int append(List<DocumentsRegisteredEvent.Entry> entries) throws IOException {
+        ZoneId zone = ZoneId.systemDefault();
+        int appended = 0;
+        for (DocumentsRegisteredEvent.Entry entry : entries) {
+            if (recentEntries.containsKey(entry.getEntryId())) {
+                continue;
+            }
+            if (active.isFull()) {
+                active.close();
+                active = createSegment(lastSeq + 1);
+            }
+            long registeredAt = entry.getRegisteredAt().atZone(zone).toInstant().toEpochMilli();
+            active.append(lastSeq + 1, entry.getEntryId(), entry.getDocumentId(), registeredAt);
+            lastSeq++;
+            recentEntries.put(entry.getEntryId(), registeredAt);
+            maxRegisteredAt = Math.max(maxRegisteredAt, registeredAt);
+            appended++;
+        }
+        if (sync && appended > 0) {
+            active.force();
+        }
+        return appended;
+    }
+
+    /**
+     * Ограничивает запрошенный диапазон записями, которые уже есть в журнале.
+     *
+     * @param fromSeq номер первой запрашиваемой записи
+     * @param limit   максимальное количество записей
+     * @return диапазон (пустой, если записей с таким номером еще нет)
+     */
+    public JournalRange range(long fromSeq, int limit) {
+        checkEnabled();
+        long first = Math.max(fromSeq, segments.firstKey());
+        long last = Math.min(lastSeq, first + Math.max(0, limit) - 1);
+        return new JournalRange(first, last);
+    }
+
+    /**
+     * Передает записи диапазона в канал сегмент за сегментом.
+     *
+     * @return количество переданных байт
+     */
+    public long transferTo(JournalRange range, WritableByteChannel target) throws IOException {
+        checkEnabled();
+        long transferred = 0;
+        long seq = range.getFirstSeq();
+        while (seq <= range.getLastSeq()) {
+            Map.Entry<Long, JournalSegment> entry = segments.floorEntry(seq);
+            if (entry == null) {
+                throw new IllegalStateException("Registry journal has no segment for seq " + seq);
+            }
+            JournalSegment segment = entry.getValue();
+            long to = Math.min(range.getLastSeq(), segment.getBaseSeq() + segment.getCapacity() - 1);
+            transferred += segment.transferTo(seq, to, target);
+            seq = to + 1;
+        }
+        return transferred;
+    }
+
+    public JournalInfoDto info() {
+        checkEnabled();
+        long last = lastSeq;
+        return new JournalInfoDto(last == 0 ? 0 : segments.firstKey(), last, RECORD_SIZE, segments.size());
+    }
+
+    private int appendMissing(List<DocumentsRegisteredEvent.Entry> missing) {
+        try {
+            int count = append(missing);
+            missing.clear();
+            pruneRecentEntries();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Загружает в {@link #recentEntries} записи хвоста журнала, попадающие в окно догоняющего чтения.
+     * Записи в журнале упорядочены по коммиту, а не по времени регистрации, поэтому хвост читается
+     * с запасом в два окна от времени регистрации последней записи.
+     */
+    private void loadRecentEntries() throws IOException {
+        long seq = lastSeq;
+        long cutoff = Long.MIN_VALUE;
+        while (seq >= segments.firstKey() && seq > 0) {
+            JournalSegment segment = segments.floorEntry(seq).getValue();
+            long from = Math.max(segment.getBaseSeq(), seq - CATCH_UP_BATCH + 1);
+            ByteBuffer records = segment.read(from, seq);
+            for (int offset = records.limit() - RECORD_SIZE; offset >= 0; offset -= RECORD_SIZE) {
+                long registeredAt = records.getLong(offset + 40);
+                if (cutoff == Long.MIN_VALUE) {
+                    cutoff = registeredAt - 2 * catchUpWindowMs;
+                }
+                if (registeredAt < cutoff) {
+                    return;
+                }
+                recentEntries.put(new UUID(records.getLong(offset + 8), records.getLong(offset + 16)), registeredAt);
+                maxRegisteredAt = Math.max(maxRegisteredAt, registeredAt);
+            }
+            seq = from - 1;
+        }
+    }
+
+    private void pruneRecentEntries() {
+        long cutoff = maxRegisteredAt - 2 * catchUpWindowMs;
+        recentEntries.values().removeIf(registeredAt -> registeredAt < cutoff);
+    }
+
+    private JournalSegment createSegment(long baseSeq) throws IOException {
+        JournalSegment segment = JournalSegment.create(directory.resolve(String.format("registry-%020d.journal", baseSeq)),
+                baseSeq, segmentRecords);
+        segments.put(baseSeq, segment);
+        return segment;
+    }
+
+    private void checkEnabled() {
+        if (!enabled) {
+            throw new JournalUnavailableException("Registry journal is disabled on this node");
+        }
+    }
+
+    /**
+     * Диапазон номеров записей журнала [firstSeq, lastSeq]; пуст, если lastSeq &lt; firstSeq.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class JournalRange {
+        private final long firstSeq;
+        private final long lastSeq;
+
+        public long count() {
+            return Math.max(0, lastSeq - firstSeq + 1);
+        }
+
+        public long length() {
+            return count() * RECORD_SIZE;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import example.docs.entity.DocumentHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,4 +19,11 @@ public interface DocumentHistoryRepository extends JpaRepository<DocumentHistory
      * @return список записей истории, отсортированный от старых к новым
      */
     List<DocumentHistory> findAllByDocumentIdOrderByCreatedAtAsc(UUID documentId);
+
+    /**
+     * Загружает историю сразу для набора документов одним запросом (вместо запроса на каждый документ).
+     * @param documentIds идентификаторы документов
+     * @return записи истории всех документов, отсортированные от старых к новым
+     */
+    List<DocumentHistory> findAllByDocumentIdInOrderByCreatedAtAsc(Collection<UUID> documentIds);
 }
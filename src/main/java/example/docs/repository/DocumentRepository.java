@@ -2,11 +2,15 @@ package example.docs.repository;
 
 import example.docs.entity.Document;
 import example.docs.entity.DocumentStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,10 +20,12 @@ import java.util.UUID;
 
 /**
  * Основной репозиторий для работы с документами.
- * Наследует JpaSpecificationExecutor для поддержки сложного динамического поиска по фильтрам.
+ * Наследует JpaSpecificationExecutor для поддержки сложного динамического поиска по фильтрам
+ * и DocumentRepositoryCustom для курсорной (keyset) пагинации.
  */
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, UUID>, JpaSpecificationExecutor<Document> {
+public interface DocumentRepository extends JpaRepository<Document, UUID>, JpaSpecificationExecutor<Document>,
+        DocumentRepositoryCustom {
 
     /**
      * Возвращает только идентификаторы документов вместо загрузки полных сущностей (Entity).
@@ -31,6 +37,75 @@ public interface DocumentRepository extends JpaRepository<Document, UUID>, JpaSp
     @Query("SELECT d.id FROM Document d WHERE d.status = :status")
     List<UUID> findIdsByStatus(@Param("status") DocumentStatus status, Pageable pageable);
 
+    /**
+     * Атомарно забирает (арендует) пачку документов в статусе DRAFT для текущего узла.
+     * Строки, заблокированные параллельными транзакциями, пропускаются (SKIP LOCKED),
+     * поэтому конкурентные воркеры всегда получают непересекающиеся пачки.
+     * Документы с истекшей арендой снова становятся доступными для захвата. Смена статуса снимает аренду,
+     * поэтому отправленный воркером документ сразу доступен очереди SUBMITTED.
+     * Статус задан литералом, чтобы планировщик мог использовать частичный индекс idx_docs_queue_draft
+     * и в обобщенном плане подготовленного запроса. Должен вызываться внутри транзакции.
+     *
+     * @param owner        идентификатор узла, захватывающего пачку
+     * @param leaseSeconds длительность аренды в секундах
+     * @param limit        максимальный размер пачки
+     * @return список UUID захваченных документов
+     */
+    @Query(value = """
+            UPDATE documents
+            SET claimed_by = :owner,
+                lease_until = LOCALTIMESTAMP + make_interval(secs => :leaseSeconds)
+            WHERE id IN (SELECT d.id
+                         FROM documents d
+                         WHERE d.status = 'DRAFT'
+                           AND (d.lease_until IS NULL OR d.lease_until < LOCALTIMESTAMP)
+                         ORDER BY d.created_at
+                         LIMIT :limit
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING id
+            """, nativeQuery = true)
+    List<UUID> claimDraftBatch(@Param("owner") String owner,
+                               @Param("leaseSeconds") int leaseSeconds,
+                               @Param("limit") int limit);
+
+    /**
+     * То же, что {@link #claimDraftBatch}, для очереди SUBMITTED (частичный индекс idx_docs_queue_submitted).
+     *
+     * @param owner        идентификатор узла, захватывающего пачку
+     * @param leaseSeconds длительность аренды в секундах
+     * @param limit        максимальный размер пачки
+     * @return список UUID захваченных документов
+     */
+    @Query(value = """
+            UPDATE documents
+            SET claimed_by = :owner,
+                lease_until = LOCALTIMESTAMP + make_interval(secs => :leaseSeconds)
+            WHERE id IN (SELECT d.id
+                         FROM documents d
+                         WHERE d.status = 'SUBMITTED'
+                           AND (d.lease_until IS NULL OR d.lease_until < LOCALTIMESTAMP)
+                         ORDER BY d.created_at
+                         LIMIT :limit
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING id
+            """, nativeQuery = true)
+    List<UUID> claimSubmittedBatch(@Param("owner") String owner,
+                                   @Param("leaseSeconds") int leaseSeconds,
+                                   @Param("limit") int limit);
+
+    /**
+     * Загружает документ с блокировкой строки без ожидания (NOWAIT).
+     * Если строка уже заблокирована другой транзакцией, сразу выбрасывается PessimisticLockingFailureException.
+     * Должен вызываться внутри транзакции.
+     *
+     * @param id идентификатор документа
+     * @return Optional с заблокированным документом
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("SELECT d FROM Document d WHERE d.id = :id")
+    Optional<Document> findByIdForUpdateNowait(@Param("id") UUID id);
+
     /**
      * Жадная (EAGER) загрузка документа вместе с его историей за один SELECT.
      *
@@ -40,5 +115,14 @@ public interface DocumentRepository extends JpaRepository<Document, UUID>, JpaSp
     @EntityGraph(attributePaths = "history")
     Optional<Document> findWithHistoryById(UUID id);
 
+    /**
+     * Текущая версия документа без загрузки самого документа и его истории.
+     *
+     * @param id идентификатор документа
+     * @return Optional с версией, пустой - если документ не найден
+     */
+    @Query("SELECT d.version FROM Document d WHERE d.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
     long countByStatus(DocumentStatus status);
 }
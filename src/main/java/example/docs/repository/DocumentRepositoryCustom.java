@@ -0,0 +1,55 @@
+package example.docs.repository;
+
+import example.docs.dto.DocumentSummaryDto;
+import example.docs.entity.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Запросы к документам, которые не выражаются через производные методы Spring Data.
+ * Результаты поиска читаются сразу в плоскую проекцию {@link DocumentSummaryDto}: сущности
+ * и их ленивые коллекции истории не загружаются.
+ */
+public interface DocumentRepositoryCustom {
+
+    /**
+     * Постраничный поиск с выборкой только полей проекции.
+     * COUNT-запрос не выполняется, если размер страницы позволяет определить общее количество.
+     *
+     * @param spec     фильтры поиска
+     * @param pageable пагинация и сортировка (по полям документа)
+     * @return страница проекций документов
+     */
+    Page<DocumentSummaryDto> findSummaries(Specification<Document> spec, Pageable pageable);
+
+    /**
+     * Курсорная (keyset) выборка: возвращает документы, следующие за позицией (createdAt, id)
+     * в порядке сортировки по (created_at, id), без OFFSET и без COUNT-запроса.
+     *
+     * @param spec           фильтры поиска
+     * @param afterCreatedAt дата создания последнего документа предыдущей страницы (null для первой страницы)
+     * @param afterId        идентификатор последнего документа предыдущей страницы (null для первой страницы)
+     * @param descending     сортировка от новых к старым
+     * @param limit          максимальное количество документов
+     * @return проекции документов следующей страницы
+     */
+    List<DocumentSummaryDto> findSummariesAfter(Specification<Document> spec, LocalDateTime afterCreatedAt, UUID afterId,
+                                                boolean descending, int limit);
+
+    /**
+     * Потоковое чтение проекций всех документов, подходящих под фильтры, в порядке (created_at, id).
+     * Строки читаются серверным курсором порциями по fetchSize, поэтому поток нужно читать внутри
+     * транзакции и закрывать после использования.
+     *
+     * @param spec      фильтры поиска
+     * @param fetchSize количество строк, читаемых из базы за одно обращение
+     * @return поток проекций документов
+     */
+    Stream<DocumentSummaryDto> streamSummaries(Specification<Document> spec, int fetchSize);
+}
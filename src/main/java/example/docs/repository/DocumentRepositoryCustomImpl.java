@@ -0,0 +1,140 @@
+package example.docs.repository;
+
+import example.docs.dto.DocumentSummaryDto;
+import example.docs.entity.Document;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class DocumentRepositoryCustomImpl implements DocumentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<DocumentSummaryDto> findSummaries(Specification<Document> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DocumentSummaryDto> query = cb.createQuery(DocumentSummaryDto.class);
+        Root<Document> root = query.from(Document.class);
+
+        Predicate filter = spec.toPredicate(root, query, cb);
+        query.select(summaryOf(root, cb));
+        if (filter != null) {
+            query.where(filter);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<DocumentSummaryDto> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<DocumentSummaryDto> findSummariesAfter(Specification<Document> spec, LocalDateTime afterCreatedAt, UUID afterId,
+                                                       boolean descending, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DocumentSummaryDto> query = cb.createQuery(DocumentSummaryDto.class);
+        Root<Document> root = query.from(Document.class);
+
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        Path<UUID> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            // Условие (created_at, id) < (x, y), записанное через OR, не задает границу диапазона индекса,
+            // поэтому добавляется избыточная граница created_at <= x (>= x): по ней индекс (created_at, id)
+            // начинает чтение с позиции курсора, а OR отсекает только строки с той же датой.
+            if (descending) {
+                predicates.add(cb.lessThanOrEqualTo(createdAt, afterCreatedAt));
+                predicates.add(cb.or(cb.lessThan(createdAt, afterCreatedAt),
+                        cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(id, afterId))));
+            } else {
+                predicates.add(cb.greaterThanOrEqualTo(createdAt, afterCreatedAt));
+                predicates.add(cb.or(cb.greaterThan(createdAt, afterCreatedAt),
+                        cb.and(cb.equal(createdAt, afterCreatedAt), cb.greaterThan(id, afterId))));
+            }
+        }
+
+        query.select(summaryOf(root, cb))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(descending
+                        ? List.of(cb.desc(createdAt), cb.desc(id))
+                        : List.of(cb.asc(createdAt), cb.asc(id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<DocumentSummaryDto> streamSummaries(Specification<Document> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DocumentSummaryDto> query = cb.createQuery(DocumentSummaryDto.class);
+        Root<Document> root = query.from(Document.class);
+
+        Predicate filter = spec.toPredicate(root, query, cb);
+        query.select(summaryOf(root, cb))
+                .orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CompoundSelection<DocumentSummaryDto> summaryOf(Root<Document> root, CriteriaBuilder cb) {
+        return cb.construct(DocumentSummaryDto.class,
+                root.get("id"),
+                root.get("uniqueNumber"),
+                root.get("author"),
+                root.get("title"),
+                root.get("status"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("version"));
+    }
+
+    private long count(Specification<Document> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Document> root = query.from(Document.class);
+
+        Predicate filter = spec.toPredicate(root, query, cb);
+        query.select(cb.count(root));
+        if (filter != null) {
+            query.where(filter);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,96 @@
+package example.docs.repository;
+
+import example.docs.dto.DocumentSearchFilter;
+import example.docs.entity.Document;
+import example.docs.exception.InvalidSearchException;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Фабрика JPA Specifications для динамического поиска документов.
+ * Используется всеми режимами поиска (постраничным, курсорным), чтобы фильтры совпадали.
+ */
+public final class DocumentSpecifications {
+
+    /**
+     * Минимальная длина подстроки: более короткие образцы не используют триграммный индекс.
+     */
+    public static final int MIN_CONTAINS_LENGTH = 3;
+
+    public static final char LIKE_ESCAPE = '\\';
+
+    private DocumentSpecifications() {
+    }
+
+    /**
+     * Строит условие поиска по заданным фильтрам. Незаполненные фильтры игнорируются.
+     *
+     * @param filter набор фильтров
+     * @return спецификация, объединяющая фильтры через AND
+     */
+    public static Specification<Document> byFilter(DocumentSearchFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getAuthor() != null && !filter.getAuthor().isBlank()) {
+                predicates.add(cb.equal(root.get("author"), filter.getAuthor()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filter.getTo()));
+            }
+            if (filter.getTitleContains() != null && !filter.getTitleContains().isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("title")), containsPattern("titleContains", filter.getTitleContains()), LIKE_ESCAPE));
+            }
+            if (filter.getAuthorContains() != null && !filter.getAuthorContains().isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("author")), containsPattern("authorContains", filter.getAuthorContains()), LIKE_ESCAPE));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Проверяет фильтры без построения запроса: те же ошибки, что и при выполнении {@link #byFilter}.
+     * Нужна там, где ошибку необходимо вернуть до начала выполнения запроса (потоковая выгрузка).
+     *
+     * @param filter набор фильтров
+     */
+    public static void validate(DocumentSearchFilter filter) {
+        if (filter.getTitleContains() != null && !filter.getTitleContains().isBlank()) {
+            containsPattern("titleContains", filter.getTitleContains());
+        }
+        if (filter.getAuthorContains() != null && !filter.getAuthorContains().isBlank()) {
+            containsPattern("authorContains", filter.getAuthorContains());
+        }
+    }
+
+    /**
+     * Образец LIKE для поиска подстроки без учета регистра по выражению lower(column),
+     * которое обслуживается триграммными индексами. Спецсимволы LIKE экранируются.
+     *
+     * @param name  имя фильтра (для сообщения об ошибке)
+     * @param value искомая подстрока
+     * @return образец вида %value% в нижнем регистре
+     */
+    public static String containsPattern(String name, String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() < MIN_CONTAINS_LENGTH) {
+            throw new InvalidSearchException(name + " must be at least " + MIN_CONTAINS_LENGTH + " characters long");
+        }
+        String escaped = trimmed.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
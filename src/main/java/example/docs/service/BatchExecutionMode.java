@@ -0,0 +1,11 @@
+package example.docs.service;
+
+/**
+ * Режим выполнения поштучной обработки документов внутри пачки.
+ */
+public enum BatchExecutionMode {
+    /** Документы обрабатываются по очереди в потоке вызывающей стороны. */
+    SEQUENTIAL,
+    /** Документы обрабатываются параллельно в ограниченном пуле потоков. */
+    PARALLEL
+}
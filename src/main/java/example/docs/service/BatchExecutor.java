@@ -0,0 +1,90 @@
+package example.docs.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Исполнитель поштучной обработки документов внутри пачки.
+ * <p>
+ * В режиме PARALLEL раскладывает документы пачки по общему ограниченному пулу потоков.
+ * Размер пула по умолчанию равен половине пула соединений Hikari: каждая задача держит одно
+ * соединение на время своей транзакции, а оставшиеся соединения остаются для API и воркеров.
+ * Пул общий для всех пачек, поэтому одновременные пачки не могут исчерпать соединения.
+ */
+@Slf4j
+@Component
+public class BatchExecutor {
+
+    private final BatchExecutionMode mode;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public BatchExecutor(@Value("${app.batch.execution:PARALLEL}") BatchExecutionMode mode,
+                         @Value("${app.batch.parallelism:0}") int configuredParallelism,
+                         @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.mode = mode;
+        this.parallelism = configuredParallelism > 0 ? configuredParallelism : Math.max(1, connectionPoolSize / 2);
+        this.executor = mode == BatchExecutionMode.PARALLEL
+                ? Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("batch-"))
+                : null;
+        log.info("Batch execution mode: {}, parallelism: {}", mode, mode == BatchExecutionMode.PARALLEL ? parallelism : 1);
+    }
+
+    /**
+     * Применяет операцию к каждому документу пачки и собирает результаты.
+     * Операция должна сама преобразовывать ошибки в коды результата.
+     *
+     * @param documentIds идентификаторы документов
+     * @param operation   обработка одного документа, возвращающая код результата
+     * @return мапа результатов, key - UUID документа, value - код результата
+     */
+    public Map<UUID, String> execute(List<UUID> documentIds, Function<UUID, String> operation) {
+        Map<UUID, String> results = new HashMap<>();
+        if (executor == null || documentIds.size() < 2) {
+            for (UUID id : documentIds) {
+                results.put(id, operation.apply(id));
+            }
+            return results;
+        }
+
+        List<Future<String>> futures = new ArrayList<>(documentIds.size());
+        for (UUID id : documentIds) {
+            futures.add(executor.submit(() -> operation.apply(id)));
+        }
+
+        for (int i = 0; i < documentIds.size(); i++) {
+            UUID id = documentIds.get(i);
+            try {
+                results.put(id, futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.put(id, "ERROR");
+            } catch (ExecutionException e) {
+                log.error("Unexpected error processing document {}", id, e.getCause());
+                results.put(id, "ERROR");
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
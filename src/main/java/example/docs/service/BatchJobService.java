@@ -0,0 +1,469 @@
+package example.docs.service;
+
+import example.docs.config.NodeIdentity;
+import example.docs.dto.BatchJobDto;
+import example.docs.dto.BatchJobItemDto;
+import example.docs.dto.BatchJobStatus;
+import example.docs.dto.CursorPageDto;
+import example.docs.entity.DocumentAction;
+import example.docs.exception.BatchTooLargeException;
+import example.docs.exception.InvalidCursorException;
+import example.docs.id.IdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронные пакетные задания смены статусов.
+ * <p>
+ * Задание и все его элементы сохраняются в batch_jobs / batch_job_items одной транзакцией, после чего
+ * запрос сразу получает идентификатор задания. Обработка идет в выделенном пуле потоков (app.batch-jobs.threads)
+ * порциями по app.batch-jobs.chunk-size документов через обычный пакетный путь {@link DocumentService};
+ * результаты порции и счетчики прогресса записываются одной транзакцией вместе с продлением аренды задания.
+ * <p>
+ * Задания захватываются через {@code SELECT ... FOR UPDATE SKIP LOCKED} с арендой, поэтому после перезапуска
+ * или падения узла незавершенное задание продолжает любой узел с первой необработанной порции.
+ * Порция, обработанная, но не записанная до падения, будет обработана повторно: уже переведенные документы
+ * получат результат CONFLICT.
+ * <p>
+ * Каждый захват выдает новый токен (claim_token), и записать прогресс или завершить задание может только
+ * обработчик с текущим токеном. Захват увеличивает счетчик попыток, запись прогресса сбрасывает его:
+ * задание, которое app.batch-jobs.max-attempts захватов подряд не продвинулось (порция падает при каждой
+ * попытке или узел падает на ней), переводится в {@link BatchJobStatus#FAILED}.
+ */
+@Slf4j
+@Service
+public class BatchJobService {
+
+    private static final String INSERT_JOB_SQL = """
+            INSERT INTO batch_jobs (id, action, initiator, status, total, created_at, updated_at)
+            VALUES (?, ?, ?, 'PENDING', ?, ?, ?)
+            """;
+
+    private static final String INSERT_ITEMS_SQL = """
+            INSERT INTO batch_job_items (job_id, position, document_id, expected_version)
+            SELECT ?, (t.ord - 1)::int, t.id, t.expected_version
+            FROM unnest(?::uuid[], ?::bigint[]) WITH ORDINALITY AS t(id, expected_version, ord)
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE batch_jobs
+            SET status = 'RUNNING', claimed_by = ?, claim_token = ?, attempts = attempts + 1,
+                lease_until = LOCALTIMESTAMP + make_interval(secs => ?), updated_at = LOCALTIMESTAMP
+            WHERE id = (SELECT j.id
+                        FROM batch_jobs j
+                        WHERE j.status IN ('PENDING', 'RUNNING')
+                          AND (j.lease_until IS NULL OR j.lease_until < LOCALTIMESTAMP)
+                        ORDER BY j.created_at
+                        LIMIT 1
+                        FOR UPDATE SKIP LOCKED)
+            RETURNING id, action, initiator, attempts
+            """;
+
+    private static final String NEXT_CHUNK_SQL = """
+            SELECT position, document_id, expected_version
+            FROM batch_job_items
+            WHERE job_id = ? AND position > ? AND result IS NULL
+            ORDER BY position
+            LIMIT ?
+            """;
+
+    private static final String RECORD_PROGRESS_SQL = """
+            UPDATE batch_jobs
+            SET processed = processed + ?, succeeded = succeeded + ?, failed = failed + ?, attempts = 0,
+                updated_at = LOCALTIMESTAMP, lease_until = LOCALTIMESTAMP + make_interval(secs => ?)
+            WHERE id = ? AND claim_token = ?
+            """;
+
+    private static final String RECORD_RESULTS_SQL = """
+            UPDATE batch_job_items i
+            SET result = r.result
+            FROM unnest(?::int[], ?::varchar[]) AS r(position, result)
+            WHERE i.job_id = ? AND i.position = r.position
+            """;
+
+    private static final String FINISH_SQL = """
+            UPDATE batch_jobs
+            SET status = ?, finished_at = LOCALTIMESTAMP, updated_at = LOCALTIMESTAMP,
+                claimed_by = NULL, claim_token = NULL, lease_until = NULL
+            WHERE id = ? AND claim_token = ?
+            """;
+
+    private static final String RECORD_FAILURE_SQL = """
+            UPDATE batch_jobs
+            SET last_error = ?, claimed_by = NULL, claim_token = NULL, updated_at = LOCALTIMESTAMP,
+                lease_until = LOCALTIMESTAMP + make_interval(secs => ?)
+            WHERE id = ? AND claim_token = ?
+            """;
+
+    private static final String SELECT_JOB_SQL = """
+            SELECT id, action, initiator, status, total, processed, succeeded, failed, created_at, updated_at, finished_at,
+                   attempts, last_error
+            FROM batch_jobs
+            WHERE id = ?
+            """;
+
+    private static final String SELECT_ITEMS_SQL = """
+            SELECT position, document_id, result
+            FROM batch_job_items
+            WHERE job_id = ? AND position > ?
+            ORDER BY position
+            LIMIT ?
+            """;
+
+    private static final String PURGE_SQL = """
+            DELETE FROM batch_jobs
+            WHERE status IN ('COMPLETED', 'FAILED') AND finished_at < LOCALTIMESTAMP - make_interval(hours => ?)
+            """;
+
+    private static final RowMapper<BatchJobDto> JOB_MAPPER = (rs, rowNum) -> new BatchJobDto(
+            rs.getObject("id", UUID.class),
+            rs.getString("action"),
+            rs.getString("initiator"),
+            BatchJobStatus.valueOf(rs.getString("status")),
+            rs.getInt("total"),
+            rs.getInt("processed"),
+            rs.getInt("succeeded"),
+            rs.getInt("failed"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")),
+            toLocalDateTime(rs.getTimestamp("finished_at")),
+            rs.getInt("attempts"),
+            rs.getString("last_error"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentService documentService;
+    private final NodeIdentity nodeIdentity;
+    private final int threads;
+    private final int chunkSize;
+    private final int maxIds;
+    private final int leaseSeconds;
+    private final int maxAttempts;
+    private final int retryDelaySeconds;
+    private final int retentionHours;
+    private final ExecutorService executor;
+    private final AtomicInteger runners = new AtomicInteger();
+
+    public BatchJobService(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           DocumentService documentService,
+                           NodeIdentity nodeIdentity,
+                           @Value("${app.batch-jobs.threads:2}") int threads,
+                           @Value("${app.batch-jobs.chunk-size:1000}") int chunkSize,
+                           @Value("${app.batch-jobs.max-ids:100000}") int maxIds,
+                           @Value("${app.batch-jobs.lease-seconds:300}") int leaseSeconds,
+                           @Value("${app.batch-jobs.max-attempts:3}") int maxAttempts,
+                           @Value("${app.batch-jobs.retry-delay-seconds:30}") int retryDelaySeconds,
+                           @Value("${app.batch-jobs.retention-hours:168}") int retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.documentService = documentService;
+        this.nodeIdentity = nodeIdentity;
+        this.threads = Math.max(1, threads);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxIds = maxIds;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelaySeconds = retryDelaySeconds;
+        this.retentionHours = retentionHours;
+        this.executor = Executors.newFixedThreadPool(this.threads, new CustomizableThreadFactory("batch-job-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Сохраняет пакетное задание и запускает его обработку в фоне.
+     *
+     * @param action           операция (SUBMIT или APPROVE)
+     * @param documentIds      идентификаторы документов в порядке запроса
+     * @param initiator        инициатор операции
+     * @param expectedVersions ожидаемые версии документов (If-Match)
+     * @return состояние созданного задания
+     */
+    public BatchJobDto createJob(DocumentAction action, List<UUID> documentIds, String initiator, Map<UUID, Long> expectedVersions) {
+        if (documentIds.size() > maxIds) {
+            throw new BatchTooLargeException("Batch job accepts at most " + maxIds + " ids, got " + documentIds.size());
+        }
+
+        UUID jobId = IdGenerator.next();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Long[] versions = new Long[documentIds.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = expectedVersions.get(documentIds.get(i));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(INSERT_JOB_SQL, jobId, action.name(), initiator, documentIds.size(), now, now);
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_ITEMS_SQL);
+                ps.setObject(1, jobId);
+                ps.setArray(2, con.createArrayOf("uuid", documentIds.toArray()));
+                ps.setArray(3, con.createArrayOf("bigint", versions));
+                return ps;
+            });
+        });
+
+        log.info("Batch job {} accepted: {} of {} documents by {}", jobId, action, documentIds.size(), initiator);
+        dispatch();
+        return getJob(jobId).orElseThrow();
+    }
+
+    public Optional<BatchJobDto> getJob(UUID jobId) {
+        return jdbcTemplate.query(SELECT_JOB_SQL, JOB_MAPPER, jobId).stream().findFirst();
+    }
+
+    /**
+     * Результаты задания по позициям исходного запроса с курсорной пагинацией.
+     *
+     * @param jobId  идентификатор задания
+     * @param cursor позиция последнего полученного элемента (null - с начала)
+     * @param size   размер страницы
+     * @return страница результатов
+     */
+    public CursorPageDto<BatchJobItemDto> getResults(UUID jobId, String cursor, int size) {
+        int afterPosition;
+        try {
+            afterPosition = cursor == null || cursor.isBlank() ? -1 : Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Malformed batch job cursor: " + cursor);
+        }
+
+        List<BatchJobItemDto> items = jdbcTemplate.query(SELECT_ITEMS_SQL, (rs, rowNum) -> new BatchJobItemDto(
+                rs.getInt("position"),
+                rs.getObject("document_id", UUID.class),
+                rs.getString("result")), jobId, afterPosition, size + 1);
+
+        boolean hasNext = items.size() > size;
+        if (hasNext) {
+            items = items.subList(0, size);
+        }
+        String nextCursor = hasNext ? String.valueOf(items.get(items.size() - 1).getPosition()) : null;
+        return new CursorPageDto<>(items, nextCursor, hasNext);
+    }
+
+    /**
+     * Подхватывает задания при старте узла (в том числе прерванные перезапуском).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        dispatch();
+    }
+
+    /**
+     * Периодически подхватывает задания с истекшей арендой (например, брошенные упавшим узлом)
+     * и удаляет завершенные задания старше app.batch-jobs.retention-hours.
+     */
+    @Scheduled(fixedDelayString = "${app.batch-jobs.poll-delay:10000}")
+    public void poll() {
+        dispatch();
+        int purged = jdbcTemplate.update(PURGE_SQL, retentionHours);
+        if (purged > 0) {
+            log.info("Purged {} finished batch jobs", purged);
+        }
+    }
+
+    /**
+     * Запускает еще один обработчик заданий, если в пуле есть свободный поток.
+     */
+    private void dispatch() {
+        int current;
+        do {
+            current = runners.get();
+            if (current >= threads) {
+                return;
+            }
+        } while (!runners.compareAndSet(current, current + 1));
+
+        try {
+            executor.execute(this::drain);
+        } catch (RuntimeException e) {
+            runners.decrementAndGet();
+            log.warn("Failed to start batch job runner: {}", e.getMessage());
+        }
+    }
+
+    private void drain() {
+        try {
+            ClaimedJob job;
+            while ((job = claim()) != null) {
+                if (job.getAttempts() > maxAttempts) {
+                    if (finish(job, BatchJobStatus.FAILED)) {
+                        log.error("Batch job {} failed: no progress after {} attempts", job.getId(), maxAttempts);
+                    }
+                    continue;
+                }
+                try {
+                    run(job);
+                } catch (RuntimeException e) {
+                    recordFailure(job, e);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Batch job runner failed: {}", e.getMessage(), e);
+        } finally {
+            runners.decrementAndGet();
+        }
+    }
+
+    private ClaimedJob claim() {
+        UUID claimToken = UUID.randomUUID();
+        return transactionTemplate.execute(status -> jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new ClaimedJob(
+                        rs.getObject("id", UUID.class),
+                        DocumentAction.valueOf(rs.getString("action")),
+                        rs.getString("initiator"),
+                        claimToken,
+                        rs.getInt("attempts")),
+                nodeIdentity.getId(), claimToken, leaseSeconds).stream().findFirst().orElse(null));
+    }
+
+    /**
+     * Переводит задание в конечное состояние, если оно все еще захвачено этим обработчиком.
+     *
+     * @return false, если аренда задания потеряна
+     */
+    private boolean finish(ClaimedJob job, BatchJobStatus status) {
+        return jdbcTemplate.update(FINISH_SQL, status.name(), job.getId(), job.getClaimToken()) > 0;
+    }
+
+    /**
+     * Записывает ошибку обработки и освобождает задание: оно будет захвачено снова через
+     * app.batch-jobs.retry-delay-seconds (новый захват увеличит счетчик попыток).
+     */
+    private void recordFailure(ClaimedJob job, RuntimeException e) {
+        log.error("Batch job {} attempt {} of {} failed: {}", job.getId(), job.getAttempts(), maxAttempts, e.getMessage(), e);
+        String error = String.valueOf(e.getMessage());
+        try {
+            jdbcTemplate.update(RECORD_FAILURE_SQL, error.substring(0, Math.min(error.length(), 1000)),
+                    retryDelaySeconds, job.getId(), job.getClaimToken());
+        } catch (RuntimeException recordError) {
+            log.warn("Failed to record batch job {} failure: {}", job.getId(), recordError.getMessage());
+        }
+    }
+
+    private void run(ClaimedJob job) {
+        long startTime = System.currentTimeMillis();
+        int lastPosition = -1;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<JobItem> chunk = jdbcTemplate.query(NEXT_CHUNK_SQL, (rs, rowNum) -> new JobItem(
+                    rs.getInt("position"),
+                    rs.getObject("document_id", UUID.class),
+                    (Long) rs.getObject("expected_version")), job.getId(), lastPosition, chunkSize);
+
+            if (chunk.isEmpty()) {
+                if (finish(job, BatchJobStatus.COMPLETED)) {
+                    log.info("Batch job {} completed in {} ms", job.getId(), System.currentTimeMillis() - startTime);
+                } else {
+                    log.warn("Batch job {} lease lost before completion, leaving it to another runner", job.getId());
+                }
+                return;
+            }
+
+            if (!processChunk(job, chunk)) {
+                log.warn("Batch job {} lease lost, leaving it to another runner", job.getId());
+                return;
+            }
+            lastPosition = chunk.get(chunk.size() - 1).getPosition();
+        }
+    }
+
+    /**
+     * Обрабатывает порцию и записывает ее результаты.
+     *
+     * @return false, если аренда задания потеряна и результаты не записаны
+     */
+    private boolean processChunk(ClaimedJob job, List<JobItem> chunk) {
+        List<UUID> ids = new ArrayList<>(chunk.size());
+        Map<UUID, Long> expectedVersions = new HashMap<>();
+        for (JobItem item : chunk) {
+            ids.add(item.getDocumentId());
+            if (item.getExpectedVersion() != null) {
+                expectedVersions.put(item.getDocumentId(), item.getExpectedVersion());
+            }
+        }
+
+        Map<UUID, String> results = job.getAction() == DocumentAction.SUBMIT
+                ? documentService.submitBatch(ids, job.getInitiator(), expectedVersions)
+                : documentService.approveBatch(ids, job.getInitiator(), expectedVersions);
+
+        Integer[] positions = new Integer[chunk.size()];
+        String[] codes = new String[chunk.size()];
+        int successCount = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            positions[i] = chunk.get(i).getPosition();
+            codes[i] = results.getOrDefault(chunk.get(i).getDocumentId(), "ERROR");
+            if ("SUCCESS".equals(codes[i])) {
+                successCount++;
+            }
+        }
+        int succeeded = successCount;
+        int failed = chunk.size() - succeeded;
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            int owned = jdbcTemplate.update(RECORD_PROGRESS_SQL,
+                    chunk.size(), succeeded, failed, leaseSeconds, job.getId(), job.getClaimToken());
+            if (owned == 0) {
+                return false;
+            }
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(RECORD_RESULTS_SQL);
+                ps.setArray(1, con.createArrayOf("integer", positions));
+                ps.setArray(2, con.createArrayOf("varchar", codes));
+                ps.setObject(3, job.getId());
+                return ps;
+            });
+            return true;
+        }));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class ClaimedJob {
+        private final UUID id;
+        private final DocumentAction action;
+        private final String initiator;
+        private final UUID claimToken;
+        private final int attempts;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class JobItem {
+        private final int position;
+        private final UUID documentId;
+        private final Long expectedVersion;
+    }
+}
@@ -0,0 +1,18 @@
+package example.docs.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Сериализованное в JSON представление документа с историей и версия, с которой оно построено.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CachedDocument {
+
+    private final UUID id;
+    private final Long version;
+    private final byte[] json;
+}
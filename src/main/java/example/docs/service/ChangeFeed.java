@@ -0,0 +1,489 @@
+package example.docs.service;
+
+import example.docs.dto.ChangeEventDto;
+import example.docs.entity.DocumentAction;
+import example.docs.event.DocumentChangedEvent;
+import example.docs.event.PgNotificationBus;
+import example.docs.exception.ChangeFeedUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Лента изменений: закоммиченные записи document_history в порядке их номера seq (см. changeset 009).
+ * <p>
+ * Один поллер на узел читает новые записи из базы и складывает их в кольцевой буфер последних
+ * app.feed.buffer-size событий; подписчики SSE и ожидающие long-poll запросы читают из буфера,
+ * поэтому число подписчиков не добавляет запросов к базе. Поллер запускается по расписанию,
+ * сразу после коммита изменений на этом узле и по уведомлению document_changed от других узлов.
+ * Подписчик, отставший дальше буфера, догоняет ленту запросами к базе порциями по app.feed.max-batch.
+ * <p>
+ * Номер seq выдается последовательностью при вставке, а транзакции коммитятся в другом порядке,
+ * поэтому пропуск в номерах означает незакоммиченную или откатившуюся транзакцию. Поллер не публикует
+ * события за пропуском, пока не завершатся все транзакции, активные в момент его обнаружения (xmin текущего
+ * снимка не меньше xmax снимка, в котором пропуск обнаружен): после этого номер занят только откатившейся
+ * транзакцией, и пропуск безопасен. Долгая транзакция задерживает ленту на все время своего выполнения;
+ * ограничить задержку можно параметром app.feed.gap-timeout (по умолчанию выключен). Смещение ленты (frontier)
+ * только растет, поэтому событие транзакции, закоммиченной позже этого срока, в живую ленту не попадет
+ * (пропуск пишется в лог с уровнем WARN и учитывается метрикой documents.feed.gaps.expired), но будет видно
+ * при чтении ленты с более раннего смещения из базы.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    public static final String EVENT_NAME = "history";
+
+    public static final String EVENTS_SQL = """
+            SELECT h.seq, h.id, h.document_id, d.unique_number, h.action, h.initiator, h.comment, h.created_at
+            FROM document_history h
+                     JOIN documents d ON d.id = h.document_id
+            WHERE h.seq > ? AND h.seq <= ?
+            ORDER BY h.seq
+            LIMIT ?
+            """;
+
+    private static final String XMIN_SQL = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    private static final String XMAX_SQL = "SELECT pg_snapshot_xmax(pg_current_snapshot())::text::bigint";
+
+    private static final RowMapper<ChangeEventDto> EVENT_MAPPER = (rs, rowNum) -> new ChangeEventDto(
+            rs.getLong("seq"),
+            rs.getObject("id", UUID.class),
+            rs.getObject("document_id", UUID.class),
+            rs.getString("unique_number"),
+            DocumentAction.valueOf(rs.getString("action")),
+            rs.getString("initiator"),
+            rs.getString("comment"),
+            toLocalDateTime(rs.getTimestamp("created_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgNotificationBus notificationBus;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final int maxBatch;
+    private final long gapTimeoutNanos;
+    private final long sseTimeoutMs;
+    private final long heartbeatMs;
+    private final Counter expiredGaps;
+
+    private final ChangeEventDto[] ring;
+    private long written;
+    private long bufferFloor;
+    private volatile long frontier;
+
+    private long gapSeq;
+    private long gapSince;
+    private long gapXmax;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final ScheduledExecutorService poller;
+    private final ExecutorService delivery;
+    private volatile boolean started;
+
+    public ChangeFeed(JdbcTemplate jdbcTemplate,
+                      PgNotificationBus notificationBus,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.feed.enabled:true}") boolean enabled,
+                      @Value("${app.feed.poll-interval:500}") long pollIntervalMs,
+                      @Value("${app.feed.buffer-size:10000}") int bufferSize,
+                      @Value("${app.feed.max-batch:1000}") int maxBatch,
+                      @Value("${app.feed.gap-timeout:0s}") Duration gapTimeout,
+                      @Value("${app.feed.delivery-threads:4}") int deliveryThreads,
+                      @Value("${app.feed.sse-timeout:30m}") Duration sseTimeout,
+                      @Value("${app.feed.heartbeat:15s}") Duration heartbeat) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationBus = notificationBus;
+        this.enabled = enabled;
+        this.pollIntervalMs = Math.max(10, pollIntervalMs);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.sseTimeoutMs = sseTimeout.toMillis();
+        this.heartbeatMs = Math.max(1000, heartbeat.toMillis());
+        this.ring = new ChangeEventDto[Math.max(this.maxBatch, bufferSize)];
+        this.poller = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("change-feed-poller-"));
+        this.delivery = Executors.newFixedThreadPool(Math.max(1, deliveryThreads), new CustomizableThreadFactory("change-feed-"));
+
+        Gauge.builder("documents.feed.subscribers", subscribers, Set::size)
+                .description("Open server-sent-events subscriptions to the change feed")
+                .register(meterRegistry);
+        Gauge.builder("documents.feed.frontier", this, feed -> feed.frontier)
+                .description("Highest history seq published to change feed subscribers")
+                .register(meterRegistry);
+        this.expiredGaps = Counter.builder("documents.feed.gaps.expired")
+                .description("Seq gaps skipped by gap timeout while the transaction holding them could still commit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запускает поллер после применения миграций: лента начинается с последней записи истории на момент старта.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Long last = jdbcTemplate.queryForObject("SELECT coalesce(max(seq), 0) FROM document_history", Long.class);
+        synchronized (ring) {
+            frontier = last != null ? last : 0;
+            bufferFloor = frontier;
+        }
+        notificationBus.subscribe(DocumentViewCache.CHANNEL, payload -> wakeUp());
+        poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        started = true;
+        log.info("Change feed started at seq {}", frontier);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        started = false;
+        poller.shutdownNow();
+        delivery.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Запускает внеочередной опрос после коммита транзакций, пополнивших историю на этом узле.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(DocumentChangedEvent event) {
+        wakeUp();
+    }
+
+    /**
+     * Номер последнего опубликованного события (текущий конец ленты).
+     */
+    public long frontier() {
+        checkAvailable();
+        return frontier;
+    }
+
+    /**
+     * События ленты после заданного смещения: из буфера, а если он уже не покрывает смещение - из базы.
+     *
+     * @param after смещение последнего полученного события
+     * @param limit максимальное количество событий
+     * @return события в порядке возрастания seq, не дальше текущего конца ленты
+     */
+    public List<ChangeEventDto> read(long after, int limit) {
+        checkAvailable();
+        int size = Math.max(1, Math.min(limit, maxBatch));
+        List<ChangeEventDto> buffered = readBuffered(after, size);
+        if (buffered != null) {
+            return buffered;
+        }
+        return jdbcTemplate.query(EVENTS_SQL, EVENT_MAPPER, after, frontier, size);
+    }
+
+    /**
+     * Открывает SSE-подписку: сначала отдаются события после смещения after, затем новые по мере коммита.
+     * Идентификатор каждого SSE-события - его seq, поэтому клиент возобновляет подписку через Last-Event-ID.
+     *
+     * @param after смещение последнего полученного события (null - только новые события)
+     * @return эмиттер подписки
+     */
+    public SseEmitter subscribe(Long after) {
+        checkAvailable();
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, after != null ? after : frontier);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Ожидание событий для long-poll запроса. Если события после смещения уже есть, слушатель вызывается сразу,
+     * иначе - в потоке поллера при публикации первых новых событий.
+     *
+     * @param after    смещение последнего полученного события
+     * @param limit    максимальное количество событий
+     * @param listener получатель событий (вызывается не более одного раза)
+     * @return отмена ожидания (например, по таймауту запроса)
+     */
+    public Runnable await(long after, int limit, Consumer<List<ChangeEventDto>> listener) {
+        List<ChangeEventDto> events = read(after, limit);
+        if (!events.isEmpty()) {
+            listener.accept(events);
+            return () -> {
+            };
+        }
+        Waiter waiter = new Waiter(after, limit, listener);
+        waiters.add(waiter);
+        if (frontier > after) {
+            // Публикация могла пройти между чтением и регистрацией ожидания
+            completeWaiters();
+        }
+        return () -> waiters.remove(waiter);
+    }
+
+    private void wakeUp() {
+        if (!started || !wakeupPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            poller.execute(() -> {
+                wakeupPending.set(false);
+                pollSafely();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeupPending.set(false);
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Change feed poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Читает записи после конца ленты и публикует непрерывный по seq префикс.
+     * Выполняется только в потоке поллера.
+     */
+    private void poll() {
+        // Пропуск закрыт, когда завершились все транзакции, которые могли занять номер; таймаут - только если задан явно
+        boolean gapClosed = gapSeq != 0 && currentXid(XMIN_SQL) >= gapXmax;
+        boolean gapExpired = gapSeq != 0 && !gapClosed
+                && gapTimeoutNanos > 0 && System.nanoTime() - gapSince >= gapTimeoutNanos;
+        // Запрос выполняется после проверки пропуска: его снимок видит все транзакции, завершенные к этому моменту
+        List<ChangeEventDto> rows = jdbcTemplate.query(EVENTS_SQL, EVENT_MAPPER, frontier, Long.MAX_VALUE, maxBatch);
+
+        List<ChangeEventDto> ready = new ArrayList<>(rows.size());
+        long expected = frontier + 1;
+        for (ChangeEventDto row : rows) {
+            if (row.getSeq() != expected) {
+                if (gapSeq != expected) {
+                    gapSeq = expected;
+                    gapSince = System.nanoTime();
+                    gapXmax = currentXid(XMAX_SQL);
+                    break;
+                }
+                if (gapClosed) {
+                    log.debug("Change feed skips seq [{}, {}]: rolled back", expected, row.getSeq() - 1);
+                } else if (gapExpired) {
+                    log.warn("Change feed skips seq [{}, {}]: not committed within gap timeout {} ms, "
+                                    + "events committed later are only readable from the database",
+                            expected, row.getSeq() - 1, TimeUnit.NANOSECONDS.toMillis(gapTimeoutNanos));
+                    expiredGaps.increment();
+                } else {
+                    break;
+                }
+            }
+            ready.add(row);
+            expected = row.getSeq() + 1;
+        }
+        if (gapSeq != 0 && gapSeq < expected) {
+            // Пропуск заполнен закоммиченной записью или пропущен: проверять xmin больше не нужно
+            gapSeq = 0;
+        }
+
+        if (!ready.isEmpty()) {
+            publish(ready);
+            if (ready.size() == maxBatch) {
+                wakeUp();
+            }
+        }
+    }
+
+    private void publish(List<ChangeEventDto> events) {
+        synchronized (ring) {
+            for (ChangeEventDto event : events) {
+                int index = (int) (written % ring.length);
+                if (ring[index] != null) {
+                    bufferFloor = ring[index].getSeq();
+                }
+                ring[index] = event;
+                written++;
+            }
+            frontier = events.get(events.size() - 1).getSeq();
+        }
+        subscribers.forEach(this::schedule);
+        completeWaiters();
+    }
+
+    /**
+     * События из буфера после смещения; null, если часть событий после смещения уже вытеснена из буфера.
+     */
+    private List<ChangeEventDto> readBuffered(long after, int limit) {
+        synchronized (ring) {
+            if (after < bufferFloor) {
+                return null;
+            }
+            long low = Math.max(0, written - ring.length);
+            long high = written;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (ring[(int) (middle % ring.length)].getSeq() <= after) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            List<ChangeEventDto> events = new ArrayList<>((int) Math.min(limit, written - low));
+            for (long position = low; position < written && events.size() < limit; position++) {
+                events.add(ring[(int) (position % ring.length)]);
+            }
+            return events;
+        }
+    }
+
+    private void completeWaiters() {
+        for (Waiter waiter : waiters) {
+            if (frontier > waiter.after && waiters.remove(waiter)) {
+                try {
+                    waiter.listener.accept(read(waiter.after, waiter.limit));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to complete change feed poll: {}", e.getMessage());
+                    waiter.listener.accept(List.of());
+                }
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.closed || !subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            delivery.execute(() -> deliver(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.scheduled.set(false);
+        }
+    }
+
+    /**
+     * Отправляет подписчику все события до конца ленты. Для одного подписчика выполняется не более
+     * одной доставки одновременно; медленный подписчик задерживает только собственную доставку, занимая один поток пула.
+     */
+    private void deliver(Subscriber subscriber) {
+        long seen;
+        try {
+            boolean sent = false;
+            List<ChangeEventDto> events;
+            do {
+                seen = frontier;
+                events = read(subscriber.position, maxBatch);
+                for (ChangeEventDto event : events) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getSeq()))
+                            .name(EVENT_NAME)
+                            .data(event, MediaType.APPLICATION_JSON));
+                    subscriber.position = event.getSeq();
+                    sent = true;
+                }
+            } while (!events.isEmpty() && !subscriber.closed);
+
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                if (!sent) {
+                    subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился: контейнер завершит эмиттер, подписка удаляется сразу
+            remove(subscriber);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Change feed delivery failed, closing subscription at seq {}: {}", subscriber.position, e.getMessage());
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (frontier > seen) {
+            schedule(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private long currentXid(String sql) {
+        Long xid = jdbcTemplate.queryForObject(sql, Long.class);
+        return xid != null ? xid : 0;
+    }
+
+    private void checkAvailable() {
+        if (!enabled) {
+            throw new ChangeFeedUnavailableException("Change feed is disabled on this node");
+        }
+        if (!started) {
+            throw new ChangeFeedUnavailableException("Change feed is not started yet");
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long position;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Waiter {
+        private final long after;
+        private final int limit;
+        private final Consumer<List<ChangeEventDto>> listener;
+    }
+}
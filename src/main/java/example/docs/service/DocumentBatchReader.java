@@ -0,0 +1,164 @@
+package example.docs.service;
+
+import example.docs.dto.BatchGetItemDto;
+import example.docs.dto.DocumentHistoryDto;
+import example.docs.dto.DocumentSummaryDto;
+import example.docs.entity.DocumentAction;
+import example.docs.entity.DocumentStatus;
+import example.docs.exception.BatchTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Пакетное чтение документов по списку идентификаторов.
+ * <p>
+ * Идентификаторы передаются одним параметром-массивом ({@code id = ANY(?::uuid[])}), поэтому текст
+ * запроса не зависит от размера пачки и план переиспользуется. Большие пачки делятся на порции
+ * (app.batch-get.chunk-size), на каждую порцию - один запрос документов и один запрос истории.
+ * Результат возвращается в порядке запроса с явной отметкой ненайденных документов.
+ */
+@Service
+public class DocumentBatchReader {
+
+    private static final String DOCUMENTS_SQL =
+            "SELECT id, unique_number, author, title, status, created_at, updated_at, version FROM documents WHERE id = ANY(?::uuid[])";
+
+    private static final String HISTORY_SQL =
+            "SELECT id, document_id, initiator, action, created_at, comment FROM document_history "
+                    + "WHERE document_id = ANY(?::uuid[]) ORDER BY created_at, id";
+
+    private static final String VERSIONS_SQL = "SELECT id, version FROM documents WHERE id = ANY(?::uuid[])";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int maxIds;
+
+    public DocumentBatchReader(JdbcTemplate jdbcTemplate,
+                               @Value("${app.batch-get.chunk-size:1000}") int chunkSize,
+                               @Value("${app.batch-get.max-ids:10000}") int maxIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Загружает документы с историей в порядке запрошенных идентификаторов.
+     *
+     * @param ids идентификаторы документов (повторы допускаются)
+     * @return по одному элементу на каждый запрошенный идентификатор
+     */
+    @Transactional(readOnly = true)
+    public List<BatchGetItemDto> read(List<UUID> ids) {
+        checkSize(ids);
+        Map<UUID, DocumentSummaryDto> found = new HashMap<>();
+
+        for (List<UUID> chunk : chunks(ids)) {
+            Map<UUID, DocumentSummaryDto> documents = new HashMap<>();
+            query(DOCUMENTS_SQL, chunk, rs -> {
+                DocumentSummaryDto document = mapDocument(rs);
+                document.setHistory(new ArrayList<>());
+                documents.put(document.getId(), document);
+            });
+            if (!documents.isEmpty()) {
+                query(HISTORY_SQL, new ArrayList<>(documents.keySet()), rs -> documents
+                        .get(rs.getObject("document_id", UUID.class))
+                        .getHistory()
+                        .add(mapHistory(rs)));
+            }
+            found.putAll(documents);
+        }
+
+        List<BatchGetItemDto> items = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            DocumentSummaryDto document = found.get(id);
+            items.add(new BatchGetItemDto(id, document != null ? "FOUND" : "NOT_FOUND", document));
+        }
+        return items;
+    }
+
+    /**
+     * Текущие версии документов без загрузки документов и истории.
+     * Транзакция не помечена readOnly, поэтому версии читаются с основной базы: по ним принимается решение
+     * об ответе 304, и отстающая реплика не должна подтверждать устаревший ETag.
+     *
+     * @param ids идентификаторы документов
+     * @return версия по идентификатору; отсутствующие документы в мапу не попадают
+     */
+    @Transactional
+    public Map<UUID, Long> readVersions(List<UUID> ids) {
+        checkSize(ids);
+        Map<UUID, Long> versions = new HashMap<>();
+        for (List<UUID> chunk : chunks(ids)) {
+            query(VERSIONS_SQL, chunk, rs -> {
+                Long version = rs.getObject("version", Long.class);
+                versions.put(rs.getObject("id", UUID.class), version != null ? version : 0L);
+            });
+        }
+        return versions;
+    }
+
+    private void checkSize(List<UUID> ids) {
+        if (ids.size() > maxIds) {
+            throw new BatchTooLargeException("Too many ids in one request: " + ids.size() + " (max " + maxIds + ")");
+        }
+    }
+
+    private List<List<UUID>> chunks(List<UUID> ids) {
+        List<UUID> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < unique.size(); from += chunkSize) {
+            chunks.add(unique.subList(from, Math.min(from + chunkSize, unique.size())));
+        }
+        return chunks;
+    }
+
+    private void query(String sql, List<UUID> ids, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, handler);
+    }
+
+    private DocumentSummaryDto mapDocument(ResultSet rs) throws SQLException {
+        return new DocumentSummaryDto(
+                rs.getObject("id", UUID.class),
+                rs.getString("unique_number"),
+                rs.getString("author"),
+                rs.getString("title"),
+                DocumentStatus.valueOf(rs.getString("status")),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                rs.getObject("version", Long.class)
+        );
+    }
+
+    private DocumentHistoryDto mapHistory(ResultSet rs) throws SQLException {
+        return new DocumentHistoryDto(
+                rs.getObject("id", UUID.class),
+                rs.getString("initiator"),
+                DocumentAction.valueOf(rs.getString("action")),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                rs.getString("comment")
+        );
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,159 @@
+package example.docs.service;
+
+import example.docs.entity.DocumentAction;
+import example.docs.entity.DocumentStatus;
+import example.docs.event.DocumentChangedEvent;
+import example.docs.event.DocumentQueueEvent;
+import example.docs.event.DocumentsRegisteredEvent;
+import example.docs.id.IdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Компонент для множественной (set-based) смены статусов целой пачки документов.
+ * <p>
+ * Вместо цепочки findById + UPDATE + INSERT на каждый документ выполняет один условный
+ * {@code UPDATE ... FROM unnest(ids, expected_versions) WHERE status = ? RETURNING id}, пакетные (JDBC batch)
+ * вставки в историю и реестр, обновление счетчиков и единственный коммит на всю пачку.
+ * Ожидаемые версии (If-Match) проверяются тем же UPDATE.
+ * Документы, которые не удалось перевести этим путем, обрабатываются вызывающей стороной
+ * поштучно через {@link DocumentProcessor}.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentBulkProcessor {
+
+    private static final String SUBMIT_SQL = """
+            UPDATE documents d
+            SET status = 'SUBMITTED', updated_at = ?, version = COALESCE(d.version, 0) + 1,
+                claimed_by = NULL, lease_until = NULL
+            FROM unnest(?::uuid[], ?::bigint[]) AS e(id, expected_version)
+            WHERE d.id = e.id AND d.status = 'DRAFT'
+              AND (e.expected_version IS NULL OR d.version = e.expected_version)
+            RETURNING d.id, d.author, d.created_at
+            """;
+
+    private static final String APPROVE_SQL = """
+            UPDATE documents d
+            SET status = 'APPROVED', updated_at = ?, version = COALESCE(d.version, 0) + 1,
+                claimed_by = NULL, lease_until = NULL
+            FROM unnest(?::uuid[], ?::bigint[]) AS e(id, expected_version)
+            WHERE d.id = e.id AND d.status = 'SUBMITTED'
+              AND (e.expected_version IS NULL OR d.version = e.expected_version)
+              AND NOT EXISTS (SELECT 1 FROM registry_entries r WHERE r.document_id = d.id)
+            RETURNING d.id, d.author, d.created_at
+            """;
+
+    private static final String INSERT_HISTORY_SQL =
+            "INSERT INTO document_history (id, document_id, initiator, action, created_at, comment) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_REGISTRY_SQL =
+            "INSERT INTO registry_entries (id, document_id, registered_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DocumentCounters counters;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Переводит из DRAFT в SUBMITTED все документы пачки, находящиеся в статусе DRAFT.
+     *
+     * @param documentIds      идентификаторы документов
+     * @param initiator        инициатор операции
+     * @param expectedVersions ожидаемые версии документов (документы без записи переводятся без проверки версии)
+     * @return идентификаторы документов, успешно переведенных в SUBMITTED
+     */
+    @Transactional
+    public Set<UUID> submitAll(List<UUID> documentIds, String initiator, Map<UUID, Long> expectedVersions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<UUID, DocumentCounters.CountedDocument> submitted = updateReturning(SUBMIT_SQL, now, documentIds, expectedVersions);
+
+        insertHistory(submitted.keySet(), initiator, DocumentAction.SUBMIT, "Sent for approval", now);
+        counters.recordTransition(submitted.values(), DocumentStatus.DRAFT, DocumentStatus.SUBMITTED, DocumentAction.SUBMIT);
+
+        if (!submitted.isEmpty()) {
+            eventPublisher.publishEvent(new DocumentQueueEvent(DocumentStatus.SUBMITTED));
+            eventPublisher.publishEvent(new DocumentChangedEvent(new ArrayList<>(submitted.keySet())));
+        }
+
+        return new HashSet<>(submitted.keySet());
+    }
+
+    /**
+     * Утверждает все документы пачки, находящиеся в статусе SUBMITTED и еще не внесенные в реестр,
+     * и создает для них записи в реестре.
+     * Нарушение уникальности реестра откатывает всю пачку, после чего она обрабатывается поштучно.
+     *
+     * @param documentIds      идентификаторы документов
+     * @param initiator        инициатор операции
+     * @param expectedVersions ожидаемые версии документов (документы без записи утверждаются без проверки версии)
+     * @return идентификаторы документов, успешно переведенных в APPROVED
+     */
+    @Transactional
+    public Set<UUID> approveAll(List<UUID> documentIds, String initiator, Map<UUID, Long> expectedVersions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<UUID, DocumentCounters.CountedDocument> approved = updateReturning(APPROVE_SQL, now, documentIds, expectedVersions);
+
+        insertHistory(approved.keySet(), initiator, DocumentAction.APPROVE, "Document approved", now);
+
+        List<Object[]> registryRows = new ArrayList<>(approved.size());
+        List<DocumentsRegisteredEvent.Entry> registered = new ArrayList<>(approved.size());
+        for (UUID id : approved.keySet()) {
+            UUID entryId = IdGenerator.next();
+            registryRows.add(new Object[]{entryId, id, now});
+            registered.add(new DocumentsRegisteredEvent.Entry(entryId, id, now.toLocalDateTime()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_REGISTRY_SQL, registryRows);
+        counters.recordTransition(approved.values(), DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, DocumentAction.APPROVE);
+
+        if (!approved.isEmpty()) {
+            eventPublisher.publishEvent(new DocumentChangedEvent(new ArrayList<>(approved.keySet())));
+            eventPublisher.publishEvent(new DocumentsRegisteredEvent(registered));
+        }
+
+        return new HashSet<>(approved.keySet());
+    }
+
+    private Map<UUID, DocumentCounters.CountedDocument> updateReturning(String sql, Timestamp now, List<UUID> documentIds,
+                                                                         Map<UUID, Long> expectedVersions) {
+        Long[] versions = new Long[documentIds.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = expectedVersions.get(documentIds.get(i));
+        }
+
+        Map<UUID, DocumentCounters.CountedDocument> updated = new LinkedHashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setTimestamp(1, now);
+            ps.setArray(2, con.createArrayOf("uuid", documentIds.toArray()));
+            ps.setArray(3, con.createArrayOf("bigint", versions));
+            return ps;
+        }, (RowCallbackHandler) rs -> updated.put(
+                rs.getObject(1, UUID.class),
+                new DocumentCounters.CountedDocument(rs.getString(2), rs.getTimestamp(3).toLocalDateTime())));
+        return updated;
+    }
+
+    private void insertHistory(Collection<UUID> documentIds, String initiator, DocumentAction action, String comment, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(documentIds.size());
+        for (UUID id : documentIds) {
+            rows.add(new Object[]{IdGenerator.next(), id, initiator, action.name(), now, comment});
+        }
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, rows);
+    }
+}
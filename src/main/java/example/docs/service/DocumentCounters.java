@@ -0,0 +1,253 @@
+package example.docs.service;
+
+import example.docs.dto.DailyStatsDto;
+import example.docs.dto.DocumentStatsDto;
+import example.docs.entity.DocumentAction;
+import example.docs.entity.DocumentStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Инкрементальные счетчики документов по статусам, авторам и дням.
+ * <p>
+ * Методы записи должны вызываться в транзакции, создающей документ или меняющей его статус,
+ * поэтому счетчики всегда согласованы с данными. Приращения одной транзакции пишутся в один
+ * случайный слот и применяются в фиксированном порядке строк, что исключает взаимные блокировки
+ * между параллельными транзакциями. Чтение остатка очереди - сумма по нескольким слотам вместо COUNT по таблице.
+ */
+@Service
+public class DocumentCounters {
+
+    private static final String UPSERT_TOTAL_SQL = """
+            INSERT INTO document_status_totals (status, slot, doc_count) VALUES (?, ?, ?)
+            ON CONFLICT (status, slot) DO UPDATE SET doc_count = document_status_totals.doc_count + EXCLUDED.doc_count
+            """;
+
+    private static final String UPSERT_STATUS_SQL = """
+            INSERT INTO document_status_counters (status, author, day, slot, doc_count) VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (status, author, day, slot) DO UPDATE SET doc_count = document_status_counters.doc_count + EXCLUDED.doc_count
+            """;
+
+    private static final String UPSERT_ACTION_SQL = """
+            INSERT INTO document_action_counters (action, author, day, slot, action_count) VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (action, author, day, slot) DO UPDATE SET action_count = document_action_counters.action_count + EXCLUDED.action_count
+            """;
+
+    private static final Comparator<DayKey> DAY_KEY_ORDER = Comparator
+            .comparing(DayKey::getName)
+            .thenComparing(DayKey::getAuthor)
+            .thenComparing(DayKey::getDay);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int slots;
+    private final int defaultStatsDays;
+
+    public DocumentCounters(JdbcTemplate jdbcTemplate,
+                            @Value("${app.counters.slots:8}") int slots,
+                            @Value("${app.counters.default-stats-days:30}") int defaultStatsDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.slots = Math.max(1, slots);
+        this.defaultStatsDays = defaultStatsDays;
+    }
+
+    /**
+     * Учитывает создание документов в статусе DRAFT.
+     *
+     * @param documents созданные документы
+     */
+    public void recordCreated(Collection<CountedDocument> documents) {
+        Map<String, Long> totals = new TreeMap<>();
+        Map<DayKey, Long> statuses = new TreeMap<>(DAY_KEY_ORDER);
+
+        for (CountedDocument document : documents) {
+            totals.merge(DocumentStatus.DRAFT.name(), 1L, Long::sum);
+            statuses.merge(DayKey.ofCreation(DocumentStatus.DRAFT, document), 1L, Long::sum);
+        }
+
+        apply(totals, statuses, Map.of());
+    }
+
+    /**
+     * Учитывает смену статуса документов и выполненное над ними действие.
+     *
+     * @param documents документы, сменившие статус
+     * @param from      исходный статус
+     * @param to        новый статус
+     * @param action    выполненное действие
+     */
+    public void recordTransition(Collection<CountedDocument> documents, DocumentStatus from, DocumentStatus to, DocumentAction action) {
+        LocalDate today = LocalDate.now();
+        Map<String, Long> totals = new TreeMap<>();
+        Map<DayKey, Long> statuses = new TreeMap<>(DAY_KEY_ORDER);
+        Map<DayKey, Long> actions = new TreeMap<>(DAY_KEY_ORDER);
+
+        for (CountedDocument document : documents) {
+            totals.merge(from.name(), -1L, Long::sum);
+            totals.merge(to.name(), 1L, Long::sum);
+            statuses.merge(DayKey.ofCreation(from, document), -1L, Long::sum);
+            statuses.merge(DayKey.ofCreation(to, document), 1L, Long::sum);
+            actions.merge(new DayKey(action.name(), document.getAuthor(), today), 1L, Long::sum);
+        }
+
+        apply(totals, statuses, actions);
+    }
+
+    /**
+     * Количество документов в заданном статусе (например, остаток очереди воркера).
+     */
+    public long countByStatus(DocumentStatus status) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(doc_count), 0) FROM document_status_totals WHERE status = ?",
+                Long.class, status.name());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Строит статистику по счетчикам.
+     *
+     * @param author автор документов (null - все авторы)
+     * @param from   начало периода (по умолчанию - последние дни, см. app.counters.default-stats-days)
+     * @param to     конец периода (по умолчанию - сегодня)
+     * @return количество документов по статусам и пропускная способность по дням
+     */
+    public DocumentStatsDto stats(String author, LocalDate from, LocalDate to) {
+        boolean allTime = from == null && to == null;
+        LocalDate periodTo = to != null ? to : LocalDate.now();
+        LocalDate periodFrom = from != null ? from : periodTo.minusDays(defaultStatsDays - 1L);
+
+        Map<DocumentStatus, Long> byStatus = new EnumMap<>(DocumentStatus.class);
+        for (DocumentStatus status : DocumentStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+
+        List<Object> params = new ArrayList<>();
+        String sql;
+        if (author == null && allTime) {
+            sql = "SELECT status, SUM(doc_count) FROM document_status_totals GROUP BY status";
+        } else {
+            StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+            if (author != null) {
+                where.append(" AND author = ?");
+                params.add(author);
+            }
+            if (!allTime) {
+                where.append(" AND day BETWEEN ? AND ?");
+                params.add(Date.valueOf(periodFrom));
+                params.add(Date.valueOf(periodTo));
+            }
+            sql = "SELECT status, SUM(doc_count) FROM document_status_counters" + where + " GROUP BY status";
+        }
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            byStatus.put(DocumentStatus.valueOf(rs.getString(1)), rs.getLong(2));
+        }, params.toArray());
+
+        return new DocumentStatsDto(author, periodFrom, periodTo, byStatus, daily(author, periodFrom, periodTo));
+    }
+
+    private List<DailyStatsDto> daily(String author, LocalDate from, LocalDate to) {
+        Map<LocalDate, DailyStatsDto> days = new TreeMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.put(day, new DailyStatsDto(day, 0, 0, 0));
+        }
+
+        List<Object> params = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to)));
+        String authorFilter = "";
+        if (author != null) {
+            authorFilter = " AND author = ?";
+            params.add(author);
+        }
+
+        jdbcTemplate.query("SELECT day, SUM(doc_count) FROM document_status_counters WHERE day BETWEEN ? AND ?"
+                + authorFilter + " GROUP BY day", (RowCallbackHandler) rs -> {
+            DailyStatsDto stats = days.get(rs.getDate(1).toLocalDate());
+            if (stats != null) {
+                stats.setCreated(rs.getLong(2));
+            }
+        }, params.toArray());
+
+        jdbcTemplate.query("SELECT day, action, SUM(action_count) FROM document_action_counters WHERE day BETWEEN ? AND ?"
+                + authorFilter + " GROUP BY day, action", (RowCallbackHandler) rs -> {
+            DailyStatsDto stats = days.get(rs.getDate(1).toLocalDate());
+            if (stats == null) {
+                return;
+            }
+            DocumentAction action = DocumentAction.valueOf(rs.getString(2));
+            if (action == DocumentAction.SUBMIT) {
+                stats.setSubmitted(rs.getLong(3));
+            } else if (action == DocumentAction.APPROVE) {
+                stats.setApproved(rs.getLong(3));
+            }
+        }, params.toArray());
+
+        return new ArrayList<>(days.values());
+    }
+
+    private void apply(Map<String, Long> totals, Map<DayKey, Long> statuses, Map<DayKey, Long> actions) {
+        short slot = (short) ThreadLocalRandom.current().nextInt(slots);
+
+        List<Object[]> totalRows = new ArrayList<>();
+        totals.forEach((status, delta) -> {
+            if (delta != 0) {
+                totalRows.add(new Object[]{status, slot, delta});
+            }
+        });
+
+        List<Object[]> statusRows = new ArrayList<>();
+        statuses.forEach((key, delta) -> {
+            if (delta != 0) {
+                statusRows.add(new Object[]{key.getName(), key.getAuthor(), Date.valueOf(key.getDay()), slot, delta});
+            }
+        });
+
+        List<Object[]> actionRows = new ArrayList<>();
+        actions.forEach((key, delta) -> actionRows.add(new Object[]{key.getName(), key.getAuthor(), Date.valueOf(key.getDay()), slot, delta}));
+
+        if (!totalRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_TOTAL_SQL, totalRows);
+        }
+        if (!statusRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_STATUS_SQL, statusRows);
+        }
+        if (!actionRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ACTION_SQL, actionRows);
+        }
+    }
+
+    /**
+     * Документ, учитываемый в счетчиках: автор и дата создания.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class CountedDocument {
+        private final String author;
+        private final LocalDateTime createdAt;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class DayKey {
+        private final String name;
+        private final String author;
+        private final LocalDate day;
+
+        static DayKey ofCreation(DocumentStatus status, CountedDocument document) {
+            return new DayKey(status.name(), document.getAuthor(), document.getCreatedAt().toLocalDate());
+        }
+    }
+}
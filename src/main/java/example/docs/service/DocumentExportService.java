@@ -0,0 +1,129 @@
+package example.docs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import example.docs.dto.DocumentSearchFilter;
+import example.docs.dto.DocumentSummaryDto;
+import example.docs.dto.ExportFormat;
+import example.docs.entity.Document;
+import example.docs.repository.DocumentRepository;
+import example.docs.repository.DocumentSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка результатов поиска документов в NDJSON или CSV.
+ * <p>
+ * Фильтры задаются той же спецификацией, что и у поиска ({@link DocumentSpecifications#byFilter}).
+ * Строки читаются однонаправленным серверным курсором PostgreSQL (fetch size внутри транзакции)
+ * и сразу пишутся в выходной поток, поэтому выгрузка миллионов документов выполняется
+ * с постоянным потреблением памяти, а первые байты уходят клиенту немедленно.
+ */
+@Service
+public class DocumentExportService {
+
+    private static final String CSV_HEADER = "id,unique_number,author,title,status,created_at,updated_at,version\n";
+
+    private final DocumentRepository documentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    public DocumentExportService(DocumentRepository documentRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.documentRepository = documentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonWriter = objectMapper.writerFor(DocumentSummaryDto.class);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Выгружает все документы, подходящие под фильтры, в порядке (created_at, id).
+     *
+     * @param filter фильтры поиска (те же, что и у поиска документов)
+     * @param format формат выгрузки
+     * @param output поток ответа
+     */
+    public void export(DocumentSearchFilter filter, ExportFormat format, OutputStream output) {
+        Specification<Document> spec = DocumentSpecifications.byFilter(filter);
+        BufferedOutputStream out = new BufferedOutputStream(output, 64 * 1024);
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            if (format == ExportFormat.CSV) {
+                write(out, CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            try (Stream<DocumentSummaryDto> rows = documentRepository.streamSummaries(spec, fetchSize)) {
+                rows.forEach(row -> {
+                    if (format == ExportFormat.CSV) {
+                        write(out, toCsvLine(row).getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        try {
+                            write(out, jsonWriter.writeValueAsBytes(row));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        write(out, new byte[]{'\n'});
+                    }
+                });
+            }
+        });
+
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Проверяет фильтры выгрузки до начала записи ответа: после первого байта ошибку уже нельзя вернуть клиенту.
+     *
+     * @param filter фильтры поиска
+     */
+    public void validate(DocumentSearchFilter filter) {
+        DocumentSpecifications.validate(filter);
+    }
+
+    private String toCsvLine(DocumentSummaryDto row) {
+        return String.join(",",
+                String.valueOf(row.getId()),
+                csv(row.getUniqueNumber()),
+                csv(row.getAuthor()),
+                csv(row.getTitle()),
+                row.getStatus().name(),
+                row.getCreatedAt() != null ? row.getCreatedAt().toString() : "",
+                row.getUpdatedAt() != null ? row.getUpdatedAt().toString() : "",
+                row.getVersion() != null ? row.getVersion().toString() : "") + "\n";
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private void write(OutputStream out, byte[] bytes) {
+        try {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
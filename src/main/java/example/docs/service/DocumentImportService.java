@@ -0,0 +1,289 @@
+package example.docs.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.docs.dto.CreateDocumentRequest;
+import example.docs.dto.ExportFormat;
+import example.docs.dto.ImportRejectDto;
+import example.docs.dto.ImportReportDto;
+import example.docs.entity.DocumentStatus;
+import example.docs.event.DocumentQueueEvent;
+import example.docs.id.DocumentNumberGenerator;
+import example.docs.id.IdGenerator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Массовая загрузка документов из потока NDJSON или CSV.
+ * <p>
+ * Вход читается построчно и не накапливается в памяти целиком: валидные строки собираются
+ * в порции (app.import.chunk-size), каждая порция записывается одной командой
+ * {@code COPY ... FROM STDIN} через pgjdbc CopyManager в отдельной транзакции вместе
+ * с обновлением счетчиков. Идентификаторы, уникальные номера и даты создаются на сервере.
+ * Строки, не прошедшие валидацию, попадают в отчет; если база отклонила порцию из-за данных
+ * (SQLSTATE классов 22 и 23: некорректное значение, нарушение ограничения), порция делится пополам до тех пор,
+ * пока не будут найдены конкретные ошибочные строки. Остальные ошибки (недоступность базы, таймауты)
+ * от данных не зависят: загрузка прерывается сразу, уже записанные порции остаются в базе.
+ * <p>
+ * Формат NDJSON: {@code {"author": "...", "title": "..."}} на строку.
+ * Формат CSV: {@code author,title} (необязательная строка заголовка), значения с запятыми
+ * и кавычками экранируются по RFC 4180; переводы строк внутри значений не поддерживаются.
+ */
+@Slf4j
+@Service
+public class DocumentImportService {
+
+    private static final String COPY_SQL = "COPY documents (id, unique_number, author, title, status, created_at, updated_at, version) "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String CSV_HEADER = "author,title";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentCounters counters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final DocumentNumberGenerator numberGenerator;
+    private final int chunkSize;
+    private final int maxReportedRejects;
+
+    public DocumentImportService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 DocumentCounters counters,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 DocumentNumberGenerator numberGenerator,
+                                 @Value("${app.import.chunk-size:10000}") int chunkSize,
+                                 @Value("${app.import.max-reported-rejects:1000}") int maxReportedRejects) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.counters = counters;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.numberGenerator = numberGenerator;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    /**
+     * Загружает документы в статусе DRAFT из входного потока.
+     *
+     * @param input  тело запроса
+     * @param format формат входных данных
+     * @return количество загруженных и отклоненных строк с причинами отклонения
+     */
+    public ImportReportDto importDocuments(InputStream input, ExportFormat format) {
+        long startTime = System.currentTimeMillis();
+        Progress progress = new Progress();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (format == ExportFormat.CSV && lineNumber == 1 && CSV_HEADER.equalsIgnoreCase(line.trim()))) {
+                    continue;
+                }
+
+                CreateDocumentRequest request;
+                try {
+                    request = format == ExportFormat.CSV ? parseCsv(line) : parseJson(line);
+                } catch (IllegalArgumentException e) {
+                    progress.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+
+                Set<ConstraintViolation<CreateDocumentRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    progress.reject(lineNumber, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+
+                chunk.add(new ImportRow(lineNumber, request.getAuthor(), request.getTitle()));
+                if (chunk.size() >= chunkSize) {
+                    load(chunk, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (!chunk.isEmpty()) {
+            load(chunk, progress);
+        }
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        log.info("Import finished: {} imported, {} rejected in {} ms", progress.imported, progress.rejected, executionTime);
+        return new ImportReportDto(progress.imported, progress.rejected, executionTime, progress.rejects);
+    }
+
+    private void load(List<ImportRow> rows, Progress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> copy(rows));
+            progress.imported += rows.size();
+        } catch (RuntimeException e) {
+            if (!isDataError(e)) {
+                log.warn("Import aborted after {} imported rows: {}", progress.imported, e.getMessage());
+                throw e;
+            }
+            if (rows.size() == 1) {
+                progress.reject(rows.get(0).getLine(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            log.debug("Import chunk of {} rows rejected by database, splitting: {}", rows.size(), e.getMessage());
+            int middle = rows.size() / 2;
+            load(rows.subList(0, middle), progress);
+            load(rows.subList(middle, rows.size()), progress);
+        }
+    }
+
+    /**
+     * Отклонена ли порция из-за самих данных (SQLSTATE класса 22 - ошибка данных, 23 - нарушение ограничения целостности).
+     */
+    private static boolean isDataError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                String state = sqlException.getSQLState();
+                return state.startsWith("22") || state.startsWith("23");
+            }
+        }
+        return false;
+    }
+
+    private void copy(List<ImportRow> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        StringBuilder data = new StringBuilder(rows.size() * 128);
+        List<DocumentCounters.CountedDocument> created = new ArrayList<>(rows.size());
+
+        for (ImportRow row : rows) {
+            UUID id = IdGenerator.next();
+            data.append(id).append(',')
+                    .append(quote(numberGenerator.next())).append(',')
+                    .append(quote(row.getAuthor())).append(',')
+                    .append(quote(row.getTitle())).append(',')
+                    .append(DocumentStatus.DRAFT.name()).append(',')
+                    .append(now).append(',')
+                    .append(now).append(",0\n");
+            created.add(new DocumentCounters.CountedDocument(row.getAuthor(), now));
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(data.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        counters.recordCreated(created);
+        eventPublisher.publishEvent(new DocumentQueueEvent(DocumentStatus.DRAFT));
+    }
+
+    private CreateDocumentRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, CreateDocumentRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private CreateDocumentRequest parseCsv(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Invalid CSV: unterminated quoted value");
+        }
+        fields.add(field.toString());
+
+        if (fields.size() != 2) {
+            throw new IllegalArgumentException("Invalid CSV: expected 2 columns (author,title), got " + fields.size());
+        }
+
+        CreateDocumentRequest request = new CreateDocumentRequest();
+        request.setAuthor(fields.get(0));
+        request.setTitle(fields.get(1));
+        return request;
+    }
+
+    private String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class ImportRow {
+        private final long line;
+        private final String author;
+        private final String title;
+    }
+
+    private class Progress {
+        private long imported;
+        private long rejected;
+        private final List<ImportRejectDto> rejects = new ArrayList<>();
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (rejects.size() < maxReportedRejects) {
+                rejects.add(new ImportRejectDto(line, reason));
+            }
+        }
+    }
+}
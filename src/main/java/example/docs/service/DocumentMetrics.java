@@ -0,0 +1,80 @@
+package example.docs.service;
+
+import example.docs.entity.DocumentStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Метрики Micrometer для горячих путей жизненного цикла документов.
+ * <p>
+ * Публикуются через Actuator (/actuator/prometheus):
+ * <ul>
+ *     <li>documents.transition.duration - время поштучной смены статуса (action, result), с гистограммой для p99;</li>
+ *     <li>documents.transitions - количество смен статуса по коду результата (action, result, path);</li>
+ *     <li>documents.batch.duration и documents.batch.size - длительность и размер пачек (action);</li>
+ *     <li>documents.queue.depth - остаток очередей воркеров (status).</li>
+ * </ul>
+ * Использование пула соединений публикуется автоматически метриками hikaricp.*.
+ */
+@Component
+public class DocumentMetrics {
+
+    private final MeterRegistry registry;
+
+    public DocumentMetrics(MeterRegistry registry, DocumentCounters counters) {
+        this.registry = registry;
+
+        for (DocumentStatus status : new DocumentStatus[]{DocumentStatus.DRAFT, DocumentStatus.SUBMITTED}) {
+            Gauge.builder("documents.queue.depth", counters, c -> c.countByStatus(status))
+                    .description("Documents waiting for the lifecycle workers")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Учитывает поштучную смену статуса документа через DocumentProcessor.
+     */
+    public void recordTransition(String action, String result, Timer.Sample sample) {
+        sample.stop(Timer.builder("documents.transition.duration")
+                .description("Single-document status transition latency")
+                .tag("action", action)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry));
+        registry.counter("documents.transitions", "action", action, "result", result, "path", "single").increment();
+    }
+
+    /**
+     * Учитывает документы, переведенные множественным UPDATE.
+     */
+    public void recordBulkTransitions(String action, int count) {
+        if (count > 0) {
+            registry.counter("documents.transitions", "action", action, "result", "SUCCESS", "path", "bulk").increment(count);
+        }
+    }
+
+    /**
+     * Учитывает обработку пачки целиком.
+     */
+    public void recordBatch(String action, int size, Timer.Sample sample) {
+        sample.stop(Timer.builder("documents.batch.duration")
+                .description("Batch transition latency")
+                .tag("action", action)
+                .publishPercentileHistogram()
+                .register(registry));
+        DistributionSummary.builder("documents.batch.size")
+                .description("Number of documents per batch")
+                .tag("action", action)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(size);
+    }
+}
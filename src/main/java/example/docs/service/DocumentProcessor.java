@@ -1,23 +1,37 @@
 package example.docs.service;
 
 import example.docs.entity.*;
+import example.docs.event.DocumentChangedEvent;
+import example.docs.event.DocumentQueueEvent;
+import example.docs.event.DocumentsRegisteredEvent;
 import example.docs.exception.InvalidStatusTransitionException;
+import example.docs.exception.PreconditionFailedException;
 import example.docs.exception.RegistryRegistrationException;
 import example.docs.repository.DocumentHistoryRepository;
 import example.docs.repository.DocumentRepository;
 import example.docs.repository.RegistryEntryRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Компонент для атомарной обработки жизненного цикла одиночных документов.
  * Выделен в отдельный сервис для обеспечения независимых транзакций (REQUIRES_NEW).
+ * Счетчики документов обновляются в той же транзакции после записи документа,
+ * чтобы блокировки строк документов и счетчиков всегда брались в одном порядке.
+ * <p>
+ * Защита от конкурентных изменений выбирается {@link LockingStrategy}: по умолчанию - app.locking.strategy,
+ * для сравнения стратегий ее можно передать явно.
  */
 @Service
 @RequiredArgsConstructor
@@ -26,52 +40,164 @@ public class DocumentProcessor {
     private final DocumentRepository documentRepository;
     private final DocumentHistoryRepository historyRepository;
     private final RegistryEntryRepository registryRepository;
+    private final DocumentBulkProcessor bulkProcessor;
+    private final DocumentCounters counters;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.locking.strategy:OPTIMISTIC}")
+    private LockingStrategy defaultStrategy;
+
+    /**
+     * Переводит документ из начального статуса DRAFT в SUBMITTED со стратегией блокировки по умолчанию.
+     *
+     * @see #processSubmit(UUID, String, Long, LockingStrategy)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void processSubmit(UUID documentId, String initiator, Long expectedVersion) {
+        submit(documentId, initiator, expectedVersion, defaultStrategy);
+    }
 
     /**
      * Переводит документ из начального статуса DRAFT в SUBMITTED.
      * Сохраняет соответствующую запись в историю аудита.
      *
-     * @param documentId идентификатор обрабатываемого документа
-     * @param initiator  имя пользователя или фонового процесса, инициировавшего действие
+     * @param documentId      идентификатор обрабатываемого документа
+     * @param initiator       имя пользователя или фонового процесса, инициировавшего действие
+     * @param expectedVersion ожидаемая версия документа (If-Match) или null, если условие не задано
+     * @param strategy        стратегия защиты от конкурентных изменений
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void processSubmit(UUID documentId, String initiator) {
-        Document document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new EntityNotFoundException("Document not found: " + documentId));
+    public void processSubmit(UUID documentId, String initiator, Long expectedVersion, LockingStrategy strategy) {
+        submit(documentId, initiator, expectedVersion, strategy);
+    }
+
+    /**
+     * Утверждает документ со стратегией блокировки по умолчанию.
+     *
+     * @see #processApprove(UUID, String, Long, LockingStrategy)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void processApprove(UUID documentId, String initiator, Long expectedVersion) {
+        approve(documentId, initiator, expectedVersion, defaultStrategy);
+    }
+
+    /**
+     * Утверждает документ (переводит из SUBMITTED в APPROVED) и синхронно создает запись в реестре.
+     * Сохраняет соответствующую запись в историю аудита.
+     *
+     * @param documentId      идентификатор утверждаемого документа
+     * @param initiator       имя пользователя или фонового процесса, инициировавшего утверждение
+     * @param expectedVersion ожидаемая версия документа (If-Match) или null, если условие не задано
+     * @param strategy        стратегия защиты от конкурентных изменений
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void processApprove(UUID documentId, String initiator, Long expectedVersion, LockingStrategy strategy) {
+        approve(documentId, initiator, expectedVersion, strategy);
+    }
+
+    private void submit(UUID documentId, String initiator, Long expectedVersion, LockingStrategy strategy) {
+        if (strategy == LockingStrategy.CONDITIONAL_UPDATE) {
+            if (bulkProcessor.submitAll(List.of(documentId), initiator, expectedVersions(documentId, expectedVersion)).isEmpty()) {
+                explainRejected(documentId, expectedVersion, DocumentStatus.DRAFT, "submit");
+            }
+            return;
+        }
+
+        Document document = load(documentId, strategy);
+
+        checkVersion(document, expectedVersion);
 
         if (document.getStatus() != DocumentStatus.DRAFT) {
             throw new InvalidStatusTransitionException("CONFLICT: Cannot submit document in status " + document.getStatus());
         }
 
         document.setStatus(DocumentStatus.SUBMITTED);
+        releaseClaim(document);
 
         historyRepository.save(new DocumentHistory(document, initiator, DocumentAction.SUBMIT, "Sent for approval"));
+        documentRepository.flush();
+
+        counters.recordTransition(List.of(countedOf(document)), DocumentStatus.DRAFT, DocumentStatus.SUBMITTED, DocumentAction.SUBMIT);
+        eventPublisher.publishEvent(new DocumentQueueEvent(DocumentStatus.SUBMITTED));
+        eventPublisher.publishEvent(new DocumentChangedEvent(List.of(documentId)));
     }
 
-    /**
-     * Утверждает документ (переводит из SUBMITTED в APPROVED) и синхронно создает запись в реестре.
-     * Сохраняет соответствующую запись в историю аудита.
-     *
-     * @param documentId идентификатор утверждаемого документа
-     * @param initiator  имя пользователя или фонового процесса, инициировавшего утверждение
-     */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void processApprove(UUID documentId, String initiator) {
-        Document document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new EntityNotFoundException("Document not found: " + documentId));
+    private void approve(UUID documentId, String initiator, Long expectedVersion, LockingStrategy strategy) {
+        if (strategy == LockingStrategy.CONDITIONAL_UPDATE) {
+            if (bulkProcessor.approveAll(List.of(documentId), initiator, expectedVersions(documentId, expectedVersion)).isEmpty()) {
+                explainRejected(documentId, expectedVersion, DocumentStatus.SUBMITTED, "approve");
+                throw new RegistryRegistrationException("REGISTRY_ERROR: Failed to create registry entry");
+            }
+            return;
+        }
+
+        Document document = load(documentId, strategy);
+
+        checkVersion(document, expectedVersion);
 
         if (document.getStatus() != DocumentStatus.SUBMITTED) {
             throw new InvalidStatusTransitionException("CONFLICT: Cannot approve document in status " + document.getStatus());
         }
 
         document.setStatus(DocumentStatus.APPROVED);
+        releaseClaim(document);
 
         historyRepository.save(new DocumentHistory(document, initiator, DocumentAction.APPROVE, "Document approved"));
 
+        RegistryEntry registryEntry;
         try {
-            registryRepository.saveAndFlush(new RegistryEntry(document));
+            registryEntry = registryRepository.saveAndFlush(new RegistryEntry(document));
         } catch (DataIntegrityViolationException e) {
             throw new RegistryRegistrationException("REGISTRY_ERROR: Failed to create registry entry");
         }
+
+        counters.recordTransition(List.of(countedOf(document)), DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, DocumentAction.APPROVE);
+        eventPublisher.publishEvent(new DocumentChangedEvent(List.of(documentId)));
+        eventPublisher.publishEvent(new DocumentsRegisteredEvent(List.of(
+                new DocumentsRegisteredEvent.Entry(registryEntry.getId(), documentId, registryEntry.getRegistryAt()))));
+    }
+
+    private Document load(UUID documentId, LockingStrategy strategy) {
+        Optional<Document> document = strategy == LockingStrategy.PESSIMISTIC_NOWAIT
+                ? documentRepository.findByIdForUpdateNowait(documentId)
+                : documentRepository.findById(documentId);
+        return document.orElseThrow(() -> new EntityNotFoundException("Document not found: " + documentId));
+    }
+
+    /**
+     * Определяет, почему условный UPDATE не изменил документ, и выбрасывает соответствующее исключение.
+     * Возвращает управление, только если документ в ожидаемом статусе и нужной версии
+     * (при утверждении это означает, что документ уже есть в реестре).
+     */
+    private void explainRejected(UUID documentId, Long expectedVersion, DocumentStatus expectedStatus, String action) {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new EntityNotFoundException("Document not found: " + documentId));
+        checkVersion(document, expectedVersion);
+        if (document.getStatus() != expectedStatus) {
+            throw new InvalidStatusTransitionException("CONFLICT: Cannot " + action + " document in status " + document.getStatus());
+        }
+    }
+
+    /**
+     * Снимает аренду воркера: документ в новом статусе сразу доступен для захвата очередью этого статуса.
+     */
+    private void releaseClaim(Document document) {
+        document.setClaimedBy(null);
+        document.setLeaseUntil(null);
+    }
+
+    private Map<UUID, Long> expectedVersions(UUID documentId, Long expectedVersion) {
+        return expectedVersion != null ? Map.of(documentId, expectedVersion) : Map.of();
+    }
+
+    private void checkVersion(Document document, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(document.getVersion())) {
+            throw new PreconditionFailedException("PRECONDITION_FAILED: Document version is " + document.getVersion()
+                    + ", expected " + expectedVersion);
+        }
+    }
+
+    private DocumentCounters.CountedDocument countedOf(Document document) {
+        return new DocumentCounters.CountedDocument(document.getAuthor(), document.getCreatedAt());
     }
 }
@@ -0,0 +1,59 @@
+package example.docs.service;
+
+import example.docs.config.NodeIdentity;
+import example.docs.entity.DocumentStatus;
+import example.docs.repository.DocumentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Очередь документов, ожидающих обработки фоновыми воркерами.
+ * <p>
+ * В режиме claim (по умолчанию) каждая выборка атомарно арендует пачку документов
+ * через {@code SELECT ... FOR UPDATE SKIP LOCKED}, поэтому пересекающиеся запуски
+ * воркеров и несколько экземпляров сервиса разбирают очередь без конфликтов версий.
+ * Если обработка документа не удалась, он вернется в очередь после истечения аренды.
+ * Каждая очередь выбирается по своему частичному индексу (idx_docs_queue_draft, idx_docs_queue_submitted).
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentQueue {
+
+    private final DocumentRepository documentRepository;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${app.workers.claim.enabled:true}")
+    private boolean claimEnabled;
+
+    @Value("${app.workers.claim.lease-seconds:60}")
+    private int leaseSeconds;
+
+    /**
+     * Выбирает очередную пачку документов в заданном статусе в порядке создания (FIFO).
+     *
+     * @param status целевой статус (DRAFT или SUBMITTED)
+     * @param limit  максимальный размер пачки
+     * @return список UUID документов, готовых к обработке
+     */
+    @Transactional
+    public List<UUID> poll(DocumentStatus status, int limit) {
+        if (!claimEnabled) {
+            return documentRepository.findIdsByStatus(
+                    status,
+                    PageRequest.of(0, limit, Sort.by(Sort.Direction.ASC, "createdAt"))
+            );
+        }
+        return switch (status) {
+            case DRAFT -> documentRepository.claimDraftBatch(nodeIdentity.getId(), leaseSeconds, limit);
+            case SUBMITTED -> documentRepository.claimSubmittedBatch(nodeIdentity.getId(), leaseSeconds, limit);
+            default -> throw new IllegalArgumentException("No worker queue for status " + status);
+        };
+    }
+}
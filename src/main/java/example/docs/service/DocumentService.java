@@ -1,27 +1,50 @@
 package example.docs.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.docs.dto.BatchGetItemDto;
 import example.docs.dto.ConcurrencyReportDto;
+import example.docs.dto.CursorPageDto;
+import example.docs.dto.DocumentHistoryDto;
+import example.docs.dto.DocumentSearchFilter;
+import example.docs.dto.DocumentStatsDto;
+import example.docs.dto.DocumentSummaryDto;
 import example.docs.entity.Document;
+import example.docs.entity.DocumentHistory;
 import example.docs.entity.DocumentStatus;
+import example.docs.event.DocumentQueueEvent;
 import example.docs.exception.InvalidStatusTransitionException;
+import example.docs.exception.PreconditionFailedException;
 import example.docs.exception.RegistryRegistrationException;
+import example.docs.id.DocumentNumberGenerator;
+import example.docs.repository.DocumentHistoryRepository;
 import example.docs.repository.DocumentRepository;
+import example.docs.repository.DocumentSpecifications;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Основной сервис для управления документами.
@@ -33,8 +56,41 @@ import java.util.concurrent.atomic.AtomicInteger;
 @RequiredArgsConstructor
 public class DocumentService {
 
+    private static final int MAX_CONCURRENCY_TEST_THREADS = 64;
+
     private final DocumentRepository documentRepository;
+    private final DocumentHistoryRepository historyRepository;
     private final DocumentProcessor documentProcessor;
+    private final DocumentBulkProcessor bulkProcessor;
+    private final BatchExecutor batchExecutor;
+    private final DocumentCounters counters;
+    private final DocumentMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentNumberGenerator numberGenerator;
+    private final DocumentViewCache documentViewCache;
+    private final DocumentBatchReader batchReader;
+    private final DocumentTextSearch textSearch;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Общий пул потоков теста конкурентного доступа: потоки переиспользуются между запусками.
+     */
+    private final ExecutorService concurrencyTestExecutor =
+            Executors.newCachedThreadPool(new CustomizableThreadFactory("concurrency-test-"));
+
+    @Value("${app.batch.bulk-enabled:true}")
+    private boolean bulkEnabled;
+
+    @Value("${app.search.max-cursor-page-size:1000}")
+    private int maxCursorPageSize;
+
+    @Value("${app.search.max-text-results:100}")
+    private int maxTextResults;
+
+    @PreDestroy
+    void shutdown() {
+        concurrencyTestExecutor.shutdownNow();
+    }
 
     /**
      * Создает новый документ в начальном статусе DRAFT с генерацией уникального номера.
@@ -43,81 +99,140 @@ public class DocumentService {
      * @param title  название документа
      * @return сохраненная сущность документа
      */
+    @Transactional
     public Document createDocument(String author, String title) {
         Document document = new Document();
         document.setAuthor(author);
         document.setTitle(title);
         document.setStatus(DocumentStatus.DRAFT);
-        document.setUniqueNumber("DOC-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        document.setUniqueNumber(numberGenerator.next());
 
-        return documentRepository.save(document);
+        Document saved = documentRepository.saveAndFlush(document);
+        counters.recordCreated(List.of(new DocumentCounters.CountedDocument(saved.getAuthor(), saved.getCreatedAt())));
+        eventPublisher.publishEvent(new DocumentQueueEvent(DocumentStatus.DRAFT));
+        return saved;
     }
 
     /**
      * Динамический поиск документов по заданным критериям с использованием JPA Specifications.
-     * Поддерживает пагинацию и фильтрацию по диапазону дат.
+     * Поддерживает пагинацию и фильтрацию по диапазону дат. Запрос читает сразу плоскую проекцию документа,
+     * история подгружается одним дополнительным запросом на всю страницу только по требованию.
      *
-     * @param status   целевой статус (опционально)
-     * @param author   точное совпадение по автору (опционально)
-     * @param from     начало периода создания (опционально)
-     * @param to       конец периода создания (опционально)
-     * @param pageable настройки пагинации и сортировки
+     * @param filter         фильтры поиска (статус, автор, период, подстроки названия и автора)
+     * @param pageable       настройки пагинации и сортировки
+     * @param includeHistory загрузить историю изменений документов страницы
      * @return страница с результатами поиска
      */
-    public Page<Document> searchDocuments(DocumentStatus status, String author, LocalDateTime from, LocalDateTime to, Pageable pageable) {
-        Specification<Document> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
+    @Transactional(readOnly = true)
+    public Page<DocumentSummaryDto> searchDocuments(DocumentSearchFilter filter, Pageable pageable, boolean includeHistory) {
+        Specification<Document> spec = DocumentSpecifications.byFilter(filter);
 
-            if (status != null) {
-                predicates.add(cb.equal(root.get("status"), status));
-            }
-            if (author != null && !author.isBlank()) {
-                predicates.add(cb.equal(root.get("author"), author));
-            }
-            if (from != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), from));
-            }
-            if (to != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), to));
-            }
+        Page<DocumentSummaryDto> page = documentRepository.findSummaries(spec, pageable);
+        if (includeHistory) {
+            attachHistory(page.getContent());
+        }
+        return page;
+    }
 
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+    /**
+     * Ранжированный полнотекстовый поиск по названию и автору (см. {@link DocumentTextSearch}).
+     *
+     * @param query          поисковый запрос
+     * @param status         фильтр по статусу (опционально)
+     * @param limit          максимальное количество результатов
+     * @param includeHistory загрузить историю изменений найденных документов
+     * @return документы в порядке убывания релевантности
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentSummaryDto> searchText(String query, DocumentStatus status, int limit, boolean includeHistory) {
+        List<DocumentSummaryDto> documents = textSearch.search(query, status, Math.max(1, Math.min(limit, maxTextResults)));
+        if (includeHistory) {
+            attachHistory(documents);
+        }
+        return documents;
+    }
+
+    /**
+     * Поиск документов с курсорной (keyset) пагинацией по ключу (created_at, id).
+     * В отличие от {@link #searchDocuments} не использует OFFSET и не выполняет COUNT-запрос,
+     * поэтому стоимость любой страницы равна стоимости первой.
+     *
+     * @param filter         фильтры поиска
+     * @param cursor         токен продолжения из предыдущего ответа (null для первой страницы)
+     * @param size           размер страницы
+     * @param direction      направление сортировки по дате создания; для продолжения берется из токена
+     * @param includeHistory загрузить историю изменений документов страницы
+     * @return страница документов и токен следующей страницы
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<DocumentSummaryDto> searchDocumentsByCursor(DocumentSearchFilter filter, String cursor, int size,
+                                                                     Sort.Direction direction, boolean includeHistory) {
+        int limit = Math.max(1, Math.min(size, maxCursorPageSize));
+        SearchCursor position = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+        Sort.Direction effectiveDirection = position != null ? position.getDirection() : direction;
+
+        List<DocumentSummaryDto> rows = documentRepository.findSummariesAfter(
+                DocumentSpecifications.byFilter(filter),
+                position != null ? position.getCreatedAt() : null,
+                position != null ? position.getId() : null,
+                effectiveDirection.isDescending(),
+                limit + 1
+        );
+
+        boolean hasNext = rows.size() > limit;
+        List<DocumentSummaryDto> items = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            DocumentSummaryDto last = items.get(items.size() - 1);
+            nextCursor = new SearchCursor(last.getCreatedAt(), last.getId(), effectiveDirection).encode();
+        }
+        if (includeHistory) {
+            attachHistory(items);
+        }
 
-        return documentRepository.findAll(spec, pageable);
+        return new CursorPageDto<>(items, nextCursor, hasNext);
     }
 
     /**
      * Нагрузочное тестирование механизма Optimistic Locking.
-     * Имитирует строгий одновременный доступ к одному документу из заданного пула потоков
-     * с использованием CountDownLatch для синхронизации старта.
+     * Имитирует строгий одновременный доступ к одному документу из заданного числа потоков
+     * с использованием CountDownLatch для синхронизации старта. Потоки берутся из общего пула.
      *
      * @param docId    идентификатор тестируемого документа
-     * @param threads  размер пула потоков
+     * @param threads  количество конкурентных потоков (не более {@value #MAX_CONCURRENCY_TEST_THREADS})
      * @param attempts количество конкурентных запросов на утверждение
+     * @param strategy стратегия защиты от конкурентных изменений
      * @return агрегированный отчет с количеством успешных выполнений и конфликтов блокировки
      */
-    public ConcurrencyReportDto testConcurrency(UUID docId, int threads, int attempts) {
-        ExecutorService executor = Executors.newFixedThreadPool(threads);
+    public ConcurrencyReportDto testConcurrency(UUID docId, int threads, int attempts, LockingStrategy strategy) {
+        int workers = Math.max(1, Math.min(Math.min(threads, MAX_CONCURRENCY_TEST_THREADS), attempts));
 
         CountDownLatch startLatch = new CountDownLatch(1);
-        CountDownLatch doneLatch = new CountDownLatch(attempts);
+        CountDownLatch doneLatch = new CountDownLatch(workers);
 
+        AtomicInteger remaining = new AtomicInteger(attempts);
         AtomicInteger successCount = new AtomicInteger(0);
         AtomicInteger conflictCount = new AtomicInteger(0);
         AtomicInteger errorCount = new AtomicInteger(0);
 
-        for (int i = 0; i < attempts; i++) {
-            executor.submit(() -> {
+        for (int i = 0; i < workers; i++) {
+            concurrencyTestExecutor.execute(() -> {
                 try {
                     startLatch.await(); // Все потоки ждут здесь отмашки
-                    documentProcessor.processApprove(docId, "CONCURRENCY_TESTER");
-                    successCount.incrementAndGet();
-                } catch (ObjectOptimisticLockingFailureException | InvalidStatusTransitionException | RegistryRegistrationException e) {
-                    conflictCount.incrementAndGet();
-                } catch (Exception e) {
-                    log.error("Unexpected error in concurrency test", e);
-                    errorCount.incrementAndGet();
+                    while (remaining.getAndDecrement() > 0) {
+                        try {
+                            documentProcessor.processApprove(docId, "CONCURRENCY_TESTER", null, strategy);
+                            successCount.incrementAndGet();
+                        } catch (ObjectOptimisticLockingFailureException | PessimisticLockingFailureException
+                                 | InvalidStatusTransitionException | RegistryRegistrationException e) {
+                            conflictCount.incrementAndGet();
+                        } catch (Exception e) {
+                            log.error("Unexpected error in concurrency test", e);
+                            errorCount.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 } finally {
                     doneLatch.countDown();
                 }
@@ -129,8 +244,6 @@ public class DocumentService {
             doneLatch.await();      // Ждем завершения всех задач
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-        } finally {
-            executor.shutdown();
         }
 
         String finalStatus = documentRepository.findById(docId)
@@ -145,53 +258,233 @@ public class DocumentService {
         );
     }
 
+    /**
+     * Пакетный перевод списка документов в статус SUBMITTED без проверки версий.
+     *
+     * @see #submitBatch(List, String, Map)
+     */
+    public Map<UUID, String> submitBatch(List<UUID> documentIds, String initiator) {
+        return submitBatch(documentIds, initiator, Map.of());
+    }
+
     /**
      * Пакетный перевод списка документов в статус SUBMITTED.
-     * Выполняется с изоляцией транзакций: падение одного документа не влияет на остальные.
+     * Сначала вся пачка переводится одним множественным UPDATE в одной транзакции,
+     * затем документы, не прошедшие этот путь, обрабатываются поштучно (параллельно, см. {@link BatchExecutor})
+     * с изоляцией транзакций: падение одного документа не влияет на остальные.
+     * Повторяющийся идентификатор обрабатывается один раз; если документ перешел в новый статус, повтор получает CONFLICT.
      *
-     * @param documentIds список идентификаторов
-     * @param initiator   инициатор операции
+     * @param documentIds      список идентификаторов
+     * @param initiator        инициатор операции
+     * @param expectedVersions ожидаемые версии документов (If-Match); при несовпадении документ получает PRECONDITION_FAILED
      * @return мапа результатов выполнения, key - UUID документа, value - статус операции (SUCCESS, CONFLICT и т.д.)
      */
-    public Map<UUID, String> submitBatch(List<UUID> documentIds, String initiator) {
-        Map<UUID, String> results = new HashMap<>();
-        for (UUID id : documentIds) {
-            results.put(id, processSingleSubmit(id, initiator));
-        }
-        return results;
+    public Map<UUID, String> submitBatch(List<UUID> documentIds, String initiator, Map<UUID, Long> expectedVersions) {
+        return processBatch("submit", documentIds,
+                ids -> bulkProcessor.submitAll(ids, initiator, expectedVersions),
+                id -> processSingleSubmit(id, initiator, expectedVersions.get(id)));
+    }
+
+    /**
+     * Пакетное утверждение списка документов без проверки версий.
+     *
+     * @see #approveBatch(List, String, Map)
+     */
+    public Map<UUID, String> approveBatch(List<UUID> documentIds, String initiator) {
+        return approveBatch(documentIds, initiator, Map.of());
     }
 
     /**
      * Пакетное утверждение списка документов (перевод в APPROVED).
-     * Выполняется с изоляцией транзакций: падение одного документа не влияет на остальные.
+     * Сначала вся пачка утверждается одним множественным UPDATE в одной транзакции,
+     * затем документы, не прошедшие этот путь, обрабатываются поштучно (параллельно, см. {@link BatchExecutor})
+     * с изоляцией транзакций: падение одного документа не влияет на остальные.
+     * Повторяющийся идентификатор обрабатывается один раз; если документ перешел в новый статус, повтор получает CONFLICT.
      *
-     * @param documentIds список идентификаторов
-     * @param initiator   инициатор операции
+     * @param documentIds      список идентификаторов
+     * @param initiator        инициатор операции
+     * @param expectedVersions ожидаемые версии документов (If-Match); при несовпадении документ получает PRECONDITION_FAILED
      * @return мапа результатов выполнения, где ключ - UUID документа, значение - статус операции
      */
-    public Map<UUID, String> approveBatch(List<UUID> documentIds, String initiator) {
-        Map<UUID, String> results = new HashMap<>();
+    public Map<UUID, String> approveBatch(List<UUID> documentIds, String initiator, Map<UUID, Long> expectedVersions) {
+        return processBatch("approve", documentIds,
+                ids -> bulkProcessor.approveAll(ids, initiator, expectedVersions),
+                id -> processSingleApprove(id, initiator, expectedVersions.get(id)));
+    }
+
+    /**
+     * Статистика документов по инкрементальным счетчикам (без сканирования таблицы документов).
+     *
+     * @param author автор документов (опционально)
+     * @param from   начало периода (опционально)
+     * @param to     конец периода (опционально)
+     * @return количество документов по статусам и пропускная способность по дням
+     */
+    public DocumentStatsDto getStats(String author, LocalDate from, LocalDate to) {
+        return counters.stats(author == null || author.isBlank() ? null : author, from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Document> getDocumentWithHistory(UUID id) {
+        return documentRepository.findWithHistoryById(id);
+    }
+
+    /**
+     * Документ с историей в виде готового JSON. Повторные чтения обслуживаются из {@link DocumentViewCache}
+     * без обращения к базе, пока документ не изменится.
+     *
+     * @param id идентификатор документа
+     * @return сериализованный документ или пустой Optional, если документ не найден
+     */
+    public Optional<CachedDocument> getDocumentView(UUID id) {
+        return documentViewCache.get(id, key -> documentRepository.findWithHistoryById(key)
+                .map(this::toCachedDocument)
+                .orElse(null));
+    }
+
+    /**
+     * Текущая версия документа для проверки If-None-Match: берется из кэша представлений,
+     * а при промахе - легким запросом без загрузки истории.
+     *
+     * @param id идентификатор документа
+     * @return версия документа или пустой Optional, если документ не найден
+     */
+    public Optional<Long> getDocumentVersion(UUID id) {
+        Optional<CachedDocument> cached = documentViewCache.getIfPresent(id);
+        if (cached.isPresent()) {
+            return Optional.of(cached.get().getVersion() != null ? cached.get().getVersion() : 0L);
+        }
+        return documentRepository.findVersionById(id);
+    }
+
+    /**
+     * Текущие версии найденных документов из набора (без загрузки документов).
+     *
+     * @param ids идентификаторы документов
+     * @return версия по идентификатору; отсутствующие документы в мапу не попадают
+     */
+    public Map<UUID, Long> getDocumentVersions(List<UUID> ids) {
+        return batchReader.readVersions(ids);
+    }
+
+    /**
+     * Пакетное получение документов с историей (см. {@link DocumentBatchReader}).
+     *
+     * @param ids идентификаторы документов
+     * @return результаты в порядке запроса, ненайденные документы отмечены NOT_FOUND
+     */
+    public List<BatchGetItemDto> getDocumentsByIds(List<UUID> ids) {
+        return batchReader.read(ids);
+    }
+
+    /**
+     * Загружает историю всех документов страницы одним запросом и раскладывает ее по документам.
+     */
+    private void attachHistory(List<DocumentSummaryDto> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<DocumentHistoryDto>> historyByDocument = new HashMap<>();
+        for (DocumentSummaryDto document : documents) {
+            historyByDocument.put(document.getId(), new ArrayList<>());
+        }
+        for (DocumentHistory entry : historyRepository.findAllByDocumentIdInOrderByCreatedAtAsc(historyByDocument.keySet())) {
+            historyByDocument.get(entry.getDocument().getId()).add(new DocumentHistoryDto(
+                    entry.getId(), entry.getInitiator(), entry.getAction(), entry.getCreatedAt(), entry.getComment()));
+        }
+        for (DocumentSummaryDto document : documents) {
+            document.setHistory(historyByDocument.get(document.getId()));
+        }
+    }
+
+    private CachedDocument toCachedDocument(Document document) {
+        try {
+            return new CachedDocument(document.getId(), document.getVersion(), objectMapper.writeValueAsBytes(document));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize document " + document.getId(), e);
+        }
+    }
+
+    /**
+     * Общая схема пакетной операции: множественный UPDATE, затем поштучная обработка остатка.
+     * Каждый документ обрабатывается один раз, даже если его идентификатор повторяется в запросе. Для повторов
+     * результат такой же, как при повторной смене статуса того же документа: если первая попытка прошла успешно,
+     * повтор получает CONFLICT (документ уже в целевом статусе), иначе - ту же ошибку, что и первая попытка.
+     */
+    private Map<UUID, String> processBatch(String action, List<UUID> documentIds,
+                                           Function<List<UUID>, Set<UUID>> bulkOperation, Function<UUID, String> singleOperation) {
+        Timer.Sample batchSample = metrics.startTimer();
+
+        Set<UUID> uniqueIds = new LinkedHashSet<>(documentIds.size());
+        Set<UUID> duplicateIds = new HashSet<>();
         for (UUID id : documentIds) {
-            results.put(id, processSingleApprove(id, initiator));
+            if (!uniqueIds.add(id)) {
+                duplicateIds.add(id);
+            }
+        }
+        List<UUID> distinctIds = new ArrayList<>(uniqueIds);
+        Set<UUID> transitioned = tryBulk(action, () -> bulkOperation.apply(distinctIds), distinctIds);
+        metrics.recordBulkTransitions(action, transitioned.size());
+
+        List<UUID> remaining = new ArrayList<>();
+        Map<UUID, String> results = new HashMap<>();
+        for (UUID id : distinctIds) {
+            if (transitioned.contains(id)) {
+                results.put(id, "SUCCESS");
+            } else {
+                remaining.add(id);
+            }
+        }
+        results.putAll(batchExecutor.execute(remaining, singleOperation));
+
+        if (!duplicateIds.isEmpty()) {
+            results.replaceAll((id, result) -> "SUCCESS".equals(result) && duplicateIds.contains(id) ? "CONFLICT" : result);
         }
+
+        metrics.recordBatch(action, documentIds.size(), batchSample);
         return results;
     }
 
-    public Optional<Document> getDocumentWithHistory(UUID id) {
-        return documentRepository.findWithHistoryById(id);
+    /**
+     * Выполняет множественную смену статусов. При любой ошибке транзакция пачки откатывается,
+     * и все документы пачки уходят на поштучную обработку.
+     */
+    private Set<UUID> tryBulk(String action, Supplier<Set<UUID>> bulkOperation, List<UUID> documentIds) {
+        if (!bulkEnabled || documentIds.size() < 2) {
+            return Set.of();
+        }
+        try {
+            return bulkOperation.get();
+        } catch (Exception e) {
+            log.warn("Bulk {} of {} documents failed, falling back to per-document processing: {}",
+                    action, documentIds.size(), e.getMessage());
+            return Set.of();
+        }
+    }
+
+    private String processSingleSubmit(UUID id, String initiator, Long expectedVersion) {
+        Timer.Sample sample = metrics.startTimer();
+        String result = submitSingle(id, initiator, expectedVersion);
+        metrics.recordTransition("submit", result, sample);
+        return result;
     }
 
-    public List<Document> getDocumentsByIds(List<UUID> ids) {
-        return documentRepository.findAllById(ids);
+    private String processSingleApprove(UUID id, String initiator, Long expectedVersion) {
+        Timer.Sample sample = metrics.startTimer();
+        String result = approveSingle(id, initiator, expectedVersion);
+        metrics.recordTransition("approve", result, sample);
+        return result;
     }
 
-    private String processSingleSubmit(UUID id, String initiator) {
+    private String submitSingle(UUID id, String initiator, Long expectedVersion) {
         try {
-            documentProcessor.processSubmit(id, initiator);
+            documentProcessor.processSubmit(id, initiator, expectedVersion);
             return "SUCCESS";
         } catch (EntityNotFoundException e) {
             return "NOT_FOUND";
-        } catch (InvalidStatusTransitionException | ObjectOptimisticLockingFailureException e) {
+        } catch (PreconditionFailedException e) {
+            return "PRECONDITION_FAILED";
+        } catch (InvalidStatusTransitionException | ObjectOptimisticLockingFailureException | PessimisticLockingFailureException e) {
             return "CONFLICT";
         } catch (Exception e) {
             log.error("Unexpected error submitting document {}", id, e);
@@ -199,13 +492,15 @@ public class DocumentService {
         }
     }
 
-    private String processSingleApprove(UUID id, String initiator) {
+    private String approveSingle(UUID id, String initiator, Long expectedVersion) {
         try {
-            documentProcessor.processApprove(id, initiator);
+            documentProcessor.processApprove(id, initiator, expectedVersion);
             return "SUCCESS";
         } catch (EntityNotFoundException e) {
             return "NOT_FOUND";
-        } catch (InvalidStatusTransitionException | ObjectOptimisticLockingFailureException e) {
+        } catch (PreconditionFailedException e) {
+            return "PRECONDITION_FAILED";
+        } catch (InvalidStatusTransitionException | ObjectOptimisticLockingFailureException | PessimisticLockingFailureException e) {
             return "CONFLICT";
         } catch (RegistryRegistrationException e) {
             return "REGISTRY_ERROR";
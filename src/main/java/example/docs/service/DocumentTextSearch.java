@@ -0,0 +1,85 @@
+package example.docs.service;
+
+import example.docs.dto.DocumentSummaryDto;
+import example.docs.entity.DocumentStatus;
+import example.docs.exception.InvalidSearchException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ранжированный полнотекстовый поиск по названию и автору документа.
+ * <p>
+ * Запрос пользователя разбирается websearch_to_tsquery (слова через пробел - И, "фраза", or, -исключение)
+ * и сопоставляется со столбцом search_vector (заполняется триггером при вставке и изменении названия или автора)
+ * через GIN-индекс idx_docs_search_vector.
+ * Совпадения в названии весят больше, чем в имени автора; при равном ранге новые документы идут первыми.
+ * Ранг вычисляется для всех совпадений, поэтому размер выдачи ограничен, а очень общие запросы
+ * стоит уточнять статусом.
+ */
+@Service
+public class DocumentTextSearch {
+
+    private static final String SEARCH_SQL = """
+            SELECT d.id, d.unique_number, d.author, d.title, d.status, d.created_at, d.updated_at, d.version
+            FROM documents d,
+                 websearch_to_tsquery('simple', ?) q
+            WHERE d.search_vector @@ q
+            """;
+
+    private static final String ORDER_SQL = " ORDER BY ts_rank(d.search_vector, q) DESC, d.created_at DESC, d.id LIMIT ?";
+
+    private static final RowMapper<DocumentSummaryDto> SUMMARY_MAPPER = (rs, rowNum) -> new DocumentSummaryDto(
+            rs.getObject("id", UUID.class),
+            rs.getString("unique_number"),
+            rs.getString("author"),
+            rs.getString("title"),
+            DocumentStatus.valueOf(rs.getString("status")),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")),
+            rs.getObject("version", Long.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentTextSearch(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ищет документы по словам запроса в порядке убывания релевантности.
+     *
+     * @param query  поисковый запрос
+     * @param status фильтр по статусу (опционально)
+     * @param limit  максимальное количество результатов
+     * @return найденные документы
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentSummaryDto> search(String query, DocumentStatus status, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidSearchException("Search query must not be empty");
+        }
+
+        List<Object> params = new ArrayList<>();
+        params.add(query.trim());
+        StringBuilder sql = new StringBuilder(SEARCH_SQL);
+        if (status != null) {
+            sql.append(" AND d.status = ?");
+            params.add(status.name());
+        }
+        sql.append(ORDER_SQL);
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), SUMMARY_MAPPER, params.toArray());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,139 @@
+package example.docs.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import example.docs.config.NodeIdentity;
+import example.docs.event.DocumentChangedEvent;
+import example.docs.event.PgNotificationBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Кэш сериализованных представлений документов с историей (GET /api/v1/documents/{id}).
+ * <p>
+ * Документы сбрасываются из кэша после коммита транзакций, изменивших их ({@link DocumentChangedEvent}),
+ * а на остальных узлах - по уведомлению PostgreSQL NOTIFY, отправленному в той же транзакции.
+ * Загрузка, начатая до коммита, не оставит в кэше устаревшее значение: сброс ключа дожидается
+ * окончания его загрузки. TTL ограничивает время жизни записи, если уведомление было потеряно
+ * (например, при переподключении слушателя). Размер, попадания и промахи публикуются в метриках cache.*.
+ */
+@Slf4j
+@Component
+public class DocumentViewCache {
+
+    static final String CHANNEL = "document_changed";
+    private static final String SEPARATOR = "|";
+    private static final int MAX_PAYLOAD_LENGTH = 7000;
+
+    private final PgNotificationBus notificationBus;
+    private final NodeIdentity nodeIdentity;
+    private final boolean enabled;
+    private final Cache<UUID, CachedDocument> cache;
+
+    public DocumentViewCache(PgNotificationBus notificationBus,
+                             NodeIdentity nodeIdentity,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.cache.documents.enabled:true}") boolean enabled,
+                             @Value("${app.cache.documents.max-size:10000}") long maxSize,
+                             @Value("${app.cache.documents.ttl:10m}") Duration ttl) {
+        this.notificationBus = notificationBus;
+        this.nodeIdentity = nodeIdentity;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "documents");
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (enabled) {
+            notificationBus.subscribe(CHANNEL, this::onNotification);
+        }
+    }
+
+    /**
+     * Возвращает представление документа из кэша или загружает его.
+     *
+     * @param id     идентификатор документа
+     * @param loader загрузка представления из базы (null, если документ не найден; не кэшируется)
+     * @return представление документа
+     */
+    public Optional<CachedDocument> get(UUID id, Function<UUID, CachedDocument> loader) {
+        if (!enabled) {
+            return Optional.ofNullable(loader.apply(id));
+        }
+        return Optional.ofNullable(cache.get(id, loader));
+    }
+
+    /**
+     * Возвращает представление документа, только если оно уже есть в кэше.
+     */
+    public Optional<CachedDocument> getIfPresent(UUID id) {
+        return enabled ? Optional.ofNullable(cache.getIfPresent(id)) : Optional.empty();
+    }
+
+    /**
+     * Передает идентификаторы измененных документов другим узлам. Выполняется до коммита,
+     * чтобы NOTIFY стал частью той же транзакции.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void broadcast(DocumentChangedEvent event) {
+        if (!enabled || event.getDocumentIds().isEmpty()) {
+            return;
+        }
+        String prefix = nodeIdentity.getId() + SEPARATOR;
+        StringBuilder payload = new StringBuilder(prefix);
+        for (UUID id : event.getDocumentIds()) {
+            if (payload.length() + 37 > MAX_PAYLOAD_LENGTH) {
+                notificationBus.publish(CHANNEL, payload.toString());
+                payload.setLength(0);
+                payload.append(prefix);
+            }
+            if (payload.length() > prefix.length()) {
+                payload.append(',');
+            }
+            payload.append(id);
+        }
+        notificationBus.publish(CHANNEL, payload.toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(DocumentChangedEvent event) {
+        if (enabled) {
+            cache.invalidateAll(event.getDocumentIds());
+        }
+    }
+
+    private void onNotification(String payload) {
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0 || payload.substring(0, separator).equals(nodeIdentity.getId())) {
+            return;
+        }
+        Collection<UUID> ids = new ArrayList<>();
+        try {
+            for (String id : payload.substring(separator + 1).split(",")) {
+                ids.add(UUID.fromString(id));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed document change notification: {}", payload);
+            return;
+        }
+        cache.invalidateAll(ids);
+    }
+}
@@ -1,12 +1,9 @@
 package example.docs.service;
 
 import example.docs.entity.DocumentStatus;
-import example.docs.repository.DocumentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -14,12 +11,17 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 
 /**
  * Фоновый обработчик для автоматического продвижения документов по жизненному циклу.
  * <p>
- * Реализует паттерн Polling (периодический опрос БД) с поддержкой асинхронного выполнения.
+ * Запускается по событиям о новых документах (в том числе от других узлов через PostgreSQL LISTEN/NOTIFY);
+ * периодический опрос БД сохранен как редкая страховка.
  * Документы обрабатываются пачками (Batch Processing) по принципу FIFO.
+ * Пачки выбираются через {@link DocumentQueue}, который арендует документы за текущим узлом,
+ * поэтому пересекающиеся запуски и несколько экземпляров сервиса не мешают друг другу.
  * Для предотвращения блокировки основного потока приложения каждый воркер
  * запускается в отдельном пуле потоков.
  */
@@ -28,80 +30,144 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DocumentWorker {
 
-    private final DocumentRepository documentRepository;
+    private final DocumentCounters counters;
+    private final DocumentQueue documentQueue;
     private final DocumentService documentService;
 
     @Value("${app.workers.batch-size:10}")
     private int batchSize;
 
+    @Value("${app.workers.enabled:true}")
+    private boolean enabled;
+
+    private final QueueState drafts = new QueueState();
+    private final QueueState submitted = new QueueState();
+
     /**
-     * Асинхронная периодическая задача для перевода документов из DRAFT в SUBMITTED.
-     * Запускается с фиксированной задержкой после завершения предыдущего цикла.
+     * Асинхронная задача для перевода документов из DRAFT в SUBMITTED.
+     * Запускается по событию о появлении новых черновиков (см. {@link WorkerWakeupListener}),
+     * а также периодически с фиксированной задержкой как страховка от потерянных событий.
+     * Обрабатывает пачки, пока очередь не опустеет; параллельные запуски на одном узле объединяются.
      * <p>
      * Включает защиту от "отравленных сообщений": если вся пачка падает
      * с ошибкой, выводится предупреждение в лог для последующего ручного вмешательства.
      */
     @Async
-    @Scheduled(fixedDelayString = "${app.workers.submit-delay:5000}")
+    @Scheduled(fixedDelayString = "${app.workers.submit-delay:30000}")
     public void processDrafts() {
+        if (enabled) {
+            drain(drafts, this::processDraftBatch);
+        }
+    }
+
+    /**
+     * Асинхронная задача для финального утверждения документов
+     * (перевод из SUBMITTED в APPROVED) и регистрации их в реестре.
+     * Запускается по событию об отправке документов на согласование и периодически как страховка.
+     */
+    @Async
+    @Scheduled(fixedDelayString = "${app.workers.approve-delay:30000}")
+    public void processSubmitted() {
+        if (enabled) {
+            drain(submitted, this::processSubmittedBatch);
+        }
+    }
+
+    /**
+     * Отмечает, что в очереди заданного статуса появились документы.
+     *
+     * @param status статус очереди (DRAFT или SUBMITTED)
+     * @return true, если воркер сейчас простаивает и его нужно запустить;
+     * false, если уже идущий запуск сам подхватит новые документы
+     */
+    public boolean requestRun(DocumentStatus status) {
+        QueueState state = status == DocumentStatus.DRAFT ? drafts : submitted;
+        state.pending.set(true);
+        return !state.running.get();
+    }
+
+    /**
+     * Обрабатывает пачки, пока они приходят полными. Если во время обработки пришел новый сигнал,
+     * цикл повторяется; одновременно на узле работает не более одного цикла на очередь.
+     */
+    private void drain(QueueState state, BooleanSupplier processBatch) {
+        state.pending.set(true);
+        do {
+            if (!state.running.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                while (state.pending.getAndSet(false)) {
+                    while (processBatch.getAsBoolean()) {
+                        state.pending.set(false);
+                    }
+                }
+            } finally {
+                state.running.set(false);
+            }
+        } while (state.pending.get());
+    }
+
+    /**
+     * @return true, если пачка была полной и хотя бы один документ обработан успешно (очередь, вероятно, не пуста)
+     */
+    private boolean processDraftBatch() {
         long startTime = System.currentTimeMillis();
 
-        List<UUID> draftIds = documentRepository.findIdsByStatus(
-                DocumentStatus.DRAFT,
-                PageRequest.of(0, batchSize, Sort.by(Sort.Direction.ASC, "createdAt"))
-        );
+        List<UUID> draftIds = documentQueue.poll(DocumentStatus.DRAFT, batchSize);
 
-        if (draftIds.isEmpty()) return;
+        if (draftIds.isEmpty()) return false;
 
         log.info("SUBMIT-worker: Найдено {} документов DRAFT. Отправка на согласование...", draftIds.size());
 
         Map<UUID, String> results = documentService.submitBatch(draftIds, "SUBMIT-WORKER");
 
-        long remaining = documentRepository.countByStatus(DocumentStatus.DRAFT);
+        long remaining = counters.countByStatus(DocumentStatus.DRAFT);
         long executionTime = System.currentTimeMillis() - startTime;
         long successCount = countSuccess(results);
 
         log.info("SUBMIT-worker: Пачка обработана за {} мс. Успешно: {}, Ошибок: {}. Осталось DRAFT: {}",
                 executionTime, successCount, draftIds.size() - successCount, remaining);
 
-        if (successCount == 0 && !draftIds.isEmpty()) {
+        if (successCount == 0) {
             log.warn("SUBMIT-worker: Внимание! Вся пачка завершилась с ошибками. Возможна блокировка очереди битыми документами: {}", results);
         }
+        return draftIds.size() == batchSize && successCount > 0;
     }
 
-    /**
-     * Асинхронная периодическая задача для финального утверждения документов
-     * (перевод из SUBMITTED в APPROVED) и регистрации их в реестре.
-     */
-    @Async
-    @Scheduled(fixedDelayString = "${app.workers.approve-delay:5000}")
-    public void processSubmitted() {
+    private boolean processSubmittedBatch() {
         long startTime = System.currentTimeMillis();
 
-        List<UUID> submittedIds = documentRepository.findIdsByStatus(
-                DocumentStatus.SUBMITTED,
-                PageRequest.of(0, batchSize, Sort.by(Sort.Direction.ASC, "createdAt"))
-        );
+        List<UUID> submittedIds = documentQueue.poll(DocumentStatus.SUBMITTED, batchSize);
 
-        if (submittedIds.isEmpty()) return;
+        if (submittedIds.isEmpty()) return false;
 
         log.info("APPROVE-worker: Найдено {} документов SUBMITTED. Отправка на утверждение...", submittedIds.size());
 
         Map<UUID, String> results = documentService.approveBatch(submittedIds, "APPROVE-WORKER");
 
-        long remaining = documentRepository.countByStatus(DocumentStatus.SUBMITTED);
+        long remaining = counters.countByStatus(DocumentStatus.SUBMITTED);
         long executionTime = System.currentTimeMillis() - startTime;
         long successCount = countSuccess(results);
 
         log.info("APPROVE-worker: Пачка обработана за {} мс. Успешно: {}, Ошибок: {}. Осталось SUBMITTED: {}",
                 executionTime, successCount, submittedIds.size() - successCount, remaining);
 
-        if (successCount == 0 && !submittedIds.isEmpty()) {
+        if (successCount == 0) {
             log.warn("APPROVE-worker: Внимание! Вся пачка завершилась с ошибками. Возможна блокировка очереди: {}", results);
         }
+        return submittedIds.size() == batchSize && successCount > 0;
     }
 
     private long countSuccess(Map<UUID, String> results) {
         return results.values().stream().filter(v -> v.equals("SUCCESS")).count();
     }
-}
\ No newline at end of file
+
+    /**
+     * Состояние очереди на текущем узле: идет ли обработка и есть ли необработанный сигнал.
+     */
+    private static class QueueState {
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicBoolean pending = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,174 @@
+package example.docs.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Обслуживание месячных секций таблицы document_history (см. changeset 005).
+ * <p>
+ * При старте и по расписанию создает секции на app.history.partitions.months-ahead месяцев вперед,
+ * чтобы новые записи никогда не попадали в секцию по умолчанию. Если в секцию по умолчанию все же
+ * попали строки из создаваемого диапазона, они переносятся в новую секцию в той же транзакции.
+ * <p>
+ * Архивация (app.history.archive.enabled, по умолчанию выключена) отсоединяет секции старше
+ * app.history.archive.after-months месяцев и переносит их в схему app.history.archive.schema,
+ * откуда их можно выгрузить или удалить, не трогая рабочую таблицу. Секция архивируется только
+ * если все ее записи относятся к утвержденным документам, иначе история незавершенных
+ * документов перестала бы быть видна.
+ * <p>
+ * Обслуживание выполняется под транзакционной advisory-блокировкой, поэтому при нескольких
+ * экземплярах сервиса DDL выполняет только один из них.
+ */
+@Slf4j
+@Component
+public class HistoryPartitionMaintenance {
+
+    private static final String TABLE = "document_history";
+
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_(\\d{4})_(\\d{2})");
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+                     JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'document_history'::regclass
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final boolean archiveEnabled;
+    private final int archiveAfterMonths;
+    private final String archiveSchema;
+
+    public HistoryPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.history.partitions.enabled:true}") boolean enabled,
+                                       @Value("${app.history.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${app.history.archive.enabled:false}") boolean archiveEnabled,
+                                       @Value("${app.history.archive.after-months:24}") int archiveAfterMonths,
+                                       @Value("${app.history.archive.schema:history_archive}") String archiveSchema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.archiveEnabled = archiveEnabled;
+        this.archiveAfterMonths = Math.max(1, archiveAfterMonths);
+        this.archiveSchema = archiveSchema;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Создает недостающие будущие секции и, если включено, архивирует старые.
+     * Ошибки обслуживания логируются и не мешают работе сервиса: до исчерпания
+     * запаса секций записи продолжают попадать в уже созданные.
+     */
+    @Scheduled(cron = "${app.history.partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!tryLock()) {
+                    log.debug("History partition maintenance is running on another node, skipping");
+                    return;
+                }
+                YearMonth current = YearMonth.now();
+                for (int i = 0; i <= monthsAhead; i++) {
+                    ensurePartition(current.plusMonths(i));
+                }
+                if (archiveEnabled) {
+                    archiveBefore(current.minusMonths(archiveAfterMonths));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("History partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('document_history_partitions'))", Boolean.class));
+    }
+
+    private void ensurePartition(YearMonth month) {
+        String name = partitionName(month);
+        List<String> existing = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+        if (existing.contains(name)) {
+            return;
+        }
+
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+
+        // Строки диапазона из секции по умолчанию переносятся в новую секцию до ее присоединения,
+        // иначе ATTACH PARTITION отклонит диапазон, пересекающийся с данными секции по умолчанию.
+        jdbcTemplate.execute(String.format("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)", name, TABLE));
+        int moved = jdbcTemplate.update(String.format("""
+                WITH moved AS (DELETE FROM %s WHERE created_at >= ? AND created_at < ? RETURNING *)
+                INSERT INTO %s SELECT * FROM moved
+                """, DEFAULT_PARTITION, name), from, to);
+        jdbcTemplate.execute(String.format("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                TABLE, name, from, to));
+
+        log.info("Created history partition {} [{}, {}), {} rows moved from default partition", name, from, to, moved);
+    }
+
+    private void archiveBefore(YearMonth boundary) {
+        jdbcTemplate.execute(String.format("CREATE SCHEMA IF NOT EXISTS %s", archiveSchema));
+
+        for (String name : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(boundary)) {
+                continue;
+            }
+
+            Boolean unfinished = jdbcTemplate.queryForObject(String.format("""
+                    SELECT EXISTS (SELECT 1
+                                   FROM %s h
+                                            JOIN documents d ON d.id = h.document_id
+                                   WHERE d.status <> 'APPROVED')
+                    """, name), Boolean.class);
+            if (Boolean.TRUE.equals(unfinished)) {
+                log.warn("History partition {} still references unfinished documents, not archived", name);
+                continue;
+            }
+
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", TABLE, name));
+            jdbcTemplate.execute(String.format("ALTER TABLE %s SET SCHEMA %s", name, archiveSchema));
+            log.info("Archived history partition {} to schema {}", name, archiveSchema);
+        }
+    }
+
+    private String partitionName(YearMonth month) {
+        return TABLE + "_" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,189 @@
+package example.docs.service;
+
+import example.docs.dto.ConcurrencyBenchmarkRequest;
+import example.docs.dto.LockingStrategyReportDto;
+import example.docs.entity.DocumentStatus;
+import example.docs.exception.InvalidStatusTransitionException;
+import example.docs.exception.RegistryRegistrationException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Сравнение стратегий блокировки {@link LockingStrategy} под конкурентной нагрузкой.
+ * <p>
+ * Для каждой стратегии создается свой набор свежих документов в статусе DRAFT, после чего заданное число потоков
+ * выполняет операции над случайными документами набора. Операция выбирается по известному статусу документа:
+ * DRAFT - submit, SUBMITTED - approve; утвержденный документ заменяется в наборе новым черновиком (создание
+ * не входит в замер). Поэтому каждая операция - допустимый переход, и конфликты возникают только из-за гонки
+ * потоков за один документ. Отказы блокировки (оптимистичной или NOWAIT) повторяются до maxRetries раз,
+ * отказы по статусу документа (переход уже выполнен другим потоком) считаются конфликтами без повтора.
+ * Задержка операции включает все ее повторы и пишется в HdrHistogram с точностью до микросекунд.
+ * <p>
+ * Потоки берутся из общего пула, который переиспользуется между запусками. Фоновые воркеры тоже продвигают
+ * созданные документы, поэтому для чистого сравнения их стоит отключить (app.workers.enabled=false).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LockingBenchmark {
+
+    private static final String INITIATOR = "LOCKING_BENCHMARK";
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final DocumentService documentService;
+    private final DocumentProcessor documentProcessor;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("locking-bench-"));
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Прогоняет нагрузку по очереди для каждой запрошенной стратегии.
+     *
+     * @param request параметры нагрузки
+     * @return результаты по стратегиям в порядке запуска
+     */
+    public List<LockingStrategyReportDto> run(ConcurrencyBenchmarkRequest request) {
+        List<LockingStrategy> strategies = request.getStrategies() == null || request.getStrategies().isEmpty()
+                ? Arrays.asList(LockingStrategy.values())
+                : request.getStrategies();
+
+        List<LockingStrategyReportDto> reports = new ArrayList<>(strategies.size());
+        for (LockingStrategy strategy : strategies) {
+            reports.add(run(strategy, request));
+        }
+        return reports;
+    }
+
+    private LockingStrategyReportDto run(LockingStrategy strategy, ConcurrencyBenchmarkRequest request) {
+        AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(request.getDocuments());
+        for (int i = 0; i < request.getDocuments(); i++) {
+            slots.set(i, new Slot(createDocument(strategy), DocumentStatus.DRAFT));
+        }
+
+        Counters counters = new Counters();
+        Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        AtomicInteger remaining = new AtomicInteger(request.getOperations());
+
+        long startTime = System.nanoTime();
+        List<CompletableFuture<Void>> workers = new ArrayList<>(request.getThreads());
+        for (int i = 0; i < request.getThreads(); i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    int index = ThreadLocalRandom.current().nextInt(slots.length());
+                    Slot slot = slots.get(index);
+                    boolean submit = slot.getStatus() == DocumentStatus.DRAFT;
+                    long operationStart = System.nanoTime();
+                    boolean succeeded = execute(strategy, slot.getDocumentId(), submit, request.getMaxRetries(), counters);
+                    latency.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - operationStart) / 1000));
+                    if (succeeded) {
+                        slots.compareAndSet(index, slot, submit
+                                ? new Slot(slot.getDocumentId(), DocumentStatus.SUBMITTED)
+                                : new Slot(createDocument(strategy), DocumentStatus.DRAFT));
+                    }
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
+        long elapsedNanos = Math.max(1, System.nanoTime() - startTime);
+
+        log.info("Locking benchmark {}: {} operations in {} ms, {} succeeded, {} conflicts, {} retries",
+                strategy, request.getOperations(), elapsedNanos / 1_000_000, counters.succeeded, counters.conflicts, counters.retries);
+
+        return new LockingStrategyReportDto(
+                strategy.name(),
+                request.getOperations(),
+                counters.succeeded.get(),
+                counters.conflicts.get(),
+                counters.lockFailures.get(),
+                counters.retries.get(),
+                counters.errors.get(),
+                request.getOperations() * 1e9 / elapsedNanos,
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(95)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getMaxValue()));
+    }
+
+    private UUID createDocument(LockingStrategy strategy) {
+        return documentService.createDocument(INITIATOR, "Locking benchmark " + strategy).getId();
+    }
+
+    /**
+     * Выполняет переход с повторами при отказе блокировки.
+     *
+     * @return true, если переход выполнен этим вызовом
+     */
+    private boolean execute(LockingStrategy strategy, UUID id, boolean submit, int maxRetries, Counters counters) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                if (submit) {
+                    documentProcessor.processSubmit(id, INITIATOR, null, strategy);
+                } else {
+                    documentProcessor.processApprove(id, INITIATOR, null, strategy);
+                }
+                counters.succeeded.incrementAndGet();
+                return true;
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                if (attempt >= maxRetries) {
+                    counters.lockFailures.incrementAndGet();
+                    return false;
+                }
+                counters.retries.incrementAndGet();
+            } catch (InvalidStatusTransitionException | RegistryRegistrationException | EntityNotFoundException e) {
+                counters.conflicts.incrementAndGet();
+                return false;
+            } catch (Exception e) {
+                log.error("Unexpected error in locking benchmark ({})", strategy, e);
+                counters.errors.incrementAndGet();
+                return false;
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Документ набора и его статус, известный бенчмарку.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class Slot {
+        private final UUID documentId;
+        private final DocumentStatus status;
+    }
+
+    private static class Counters {
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger conflicts = new AtomicInteger();
+        private final AtomicInteger lockFailures = new AtomicInteger();
+        private final AtomicInteger retries = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+    }
+}
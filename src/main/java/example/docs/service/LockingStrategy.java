@@ -0,0 +1,13 @@
+package example.docs.service;
+
+/**
+ * Способ защиты смены статуса документа от конкурентных изменений (см. {@link DocumentProcessor}).
+ */
+public enum LockingStrategy {
+    /** Чтение без блокировки, проверка @Version при записи; проигравшая транзакция получает ObjectOptimisticLockingFailureException. */
+    OPTIMISTIC,
+    /** Блокировка строки при чтении с NOWAIT: занятая строка сразу дает отказ вместо ожидания. */
+    PESSIMISTIC_NOWAIT,
+    /** Один условный UPDATE по id и текущему статусу без предварительного чтения документа. */
+    CONDITIONAL_UPDATE
+}
@@ -0,0 +1,46 @@
+package example.docs.service;
+
+import example.docs.exception.InvalidCursorException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция курсорной пагинации: ключ (createdAt, id) последнего выданного документа и направление сортировки.
+ * Передается клиенту в виде непрозрачного base64url-токена.
+ */
+@Getter
+@RequiredArgsConstructor
+class SearchCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+    private final Sort.Direction direction;
+
+    String encode() {
+        String raw = createdAt + SEPARATOR + id + SEPARATOR + direction.name();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            return new SearchCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]), Sort.Direction.valueOf(parts[2]));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package example.docs.service;
+
+import example.docs.config.NodeIdentity;
+import example.docs.entity.DocumentStatus;
+import example.docs.event.DocumentQueueEvent;
+import example.docs.event.PgNotificationBus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Пробуждает фоновые воркеры сразу после коммита транзакций, добавивших документы в их очереди.
+ * <p>
+ * Локальный воркер запускается по событию приложения, воркеры других узлов - по уведомлению
+ * PostgreSQL NOTIFY, отправленному в той же транзакции. Уведомления от собственного узла игнорируются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkerWakeupListener {
+
+    static final String CHANNEL = "document_queue";
+    private static final String SEPARATOR = "|";
+
+    private final DocumentWorker documentWorker;
+    private final PgNotificationBus notificationBus;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${app.workers.wakeup.enabled:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    void subscribe() {
+        if (enabled) {
+            notificationBus.subscribe(CHANNEL, this::onNotification);
+        }
+    }
+
+    /**
+     * Передает сигнал другим узлам. Выполняется до коммита, чтобы NOTIFY стал частью той же транзакции.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void broadcast(DocumentQueueEvent event) {
+        if (enabled) {
+            notificationBus.publish(CHANNEL, event.getStatus().name() + SEPARATOR + nodeIdentity.getId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(DocumentQueueEvent event) {
+        if (enabled) {
+            wakeUp(event.getStatus());
+        }
+    }
+
+    private void onNotification(String payload) {
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0 || payload.substring(separator + 1).equals(nodeIdentity.getId())) {
+            return;
+        }
+        try {
+            wakeUp(DocumentStatus.valueOf(payload.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed queue notification: {}", payload);
+        }
+    }
+
+    private void wakeUp(DocumentStatus status) {
+        if (!documentWorker.requestRun(status)) {
+            return;
+        }
+        if (status == DocumentStatus.DRAFT) {
+            documentWorker.processDrafts();
+        } else if (status == DocumentStatus.SUBMITTED) {
+            documentWorker.processSubmitted();
+        }
+    }
+}
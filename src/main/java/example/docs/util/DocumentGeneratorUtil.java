@@ -1,74 +1,155 @@
 package example.docs.util;
 
+import example.docs.util.load.LoadClient;
+import example.docs.util.load.LoadConfig;
+import example.docs.util.load.LoadModel;
+import example.docs.util.load.LoadOperation;
+import example.docs.util.load.LoadStats;
+import example.docs.util.load.WorkloadMix;
+
 import java.io.FileInputStream;
 import java.io.InputStream;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Генератор документов и нагрузочный стенд для локального экземпляра сервиса.
+ * <p>
+ * Сначала создает generator.document.count документов (не более load.concurrency запросов
+ * одновременно), затем, если задан load.duration-seconds, подает смешанную нагрузку
+ * (создание, поиск, чтение, пакетное чтение, отправка, утверждение) с весами load.weight.*
+ * в закрытой (фиксированное число пользователей) или открытой (фиксированная частота) модели.
+ * После прогрева собираются перцентили задержек и пропускная способность по каждой операции;
+ * отчет выводится в консоль и сохраняется в load.report.file.
+ */
 public class DocumentGeneratorUtil {
 
-    public static void main(String[] args) {
-        Properties props = loadProperties();
-        int count = Integer.parseInt(props.getProperty("generator.document.count", "10"));
-        String apiUrl = props.getProperty("generator.api.url", "http://localhost:8080/api/v1/documents");
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = new LoadConfig(loadProperties());
 
-        if (count <= 0) {
-            System.err.println("Ошибка: Неверное количество документов в generator.properties");
+        if (config.getPreloadCount() < 0 || config.getConcurrency() <= 0) {
+            System.err.println("Ошибка: Неверное количество документов или конкурентность в generator.properties");
             return;
         }
 
-        System.out.println("Начинаем генерацию " + count + " документов по адресу: " + apiUrl);
+        LoadClient client = new LoadClient(config.getApiUrl(), config.getBatchSize());
+        preload(client, config);
+
+        if (config.getDurationSeconds() <= 0) {
+            return;
+        }
+
+        WorkloadMix mix = new WorkloadMix(config.getWeights());
+        LoadStats stats = new LoadStats();
+
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long end = measureStart + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        stats.setWindow(measureStart, end);
+
+        System.out.println(String.format("Нагрузка: модель %s, прогрев %d с, замер %d с...",
+                config.getModel(), config.getWarmupSeconds(), config.getDurationSeconds()));
+
+        if (config.getModel() == LoadModel.OPEN) {
+            runOpen(client, mix, stats, config, start, end);
+        } else {
+            runClosed(client, mix, stats, config, end);
+        }
+
+        String header = config.getModel() == LoadModel.OPEN
+                ? String.format("Открытая модель: %d запр/с, не более %d запросов одновременно, замер %d с",
+                config.getRate(), config.getConcurrency(), config.getDurationSeconds())
+                : String.format("Закрытая модель: %d пользователей, замер %d с",
+                config.getConcurrency(), config.getDurationSeconds());
+        String report = stats.report(header);
+
+        System.out.println(report);
+        Files.writeString(Path.of(config.getReportFile()), report, StandardCharsets.UTF_8);
+        System.out.println("Отчет сохранен в " + Path.of(config.getReportFile()).toAbsolutePath());
+    }
+
+    /**
+     * Создает начальный набор документов, ограничивая число одновременных запросов.
+     */
+    private static void preload(LoadClient client, LoadConfig config) throws InterruptedException {
+        int count = config.getPreloadCount();
+        if (count == 0) {
+            return;
+        }
+
+        System.out.println("Начинаем генерацию " + count + " документов по адресу: " + config.getApiUrl());
         long startTime = System.currentTimeMillis();
 
-        HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
-
-        AtomicInteger successCount = new AtomicInteger(0);
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-
-        for (int i = 1; i <= count; i++) {
-            int docIndex = i;
-            String jsonBody = String.format("{\"author\":\"Author-%d\", \"title\":\"Generated Doc %d\"}", docIndex, docIndex);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(apiUrl))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                    .build();
-
-            CompletableFuture<Void> future = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                    .thenAccept(response -> {
-                        if (response.statusCode() == 201) {
-                            int currentSuccess = successCount.incrementAndGet();
-                            if (currentSuccess % 10 == 0 || currentSuccess == count) {
-                                System.out.println(String.format("Прогресс: %d / %d создано...", currentSuccess, count));
-                            }
-                        } else {
-                            System.err.println("Ошибка на сервере для документа " + docIndex + ": HTTP " + response.statusCode());
+        LoadStats stats = new LoadStats();
+        stats.setWindow(Long.MIN_VALUE, Long.MAX_VALUE);
+        Semaphore inFlight = new Semaphore(config.getConcurrency());
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            inFlight.acquire();
+            futures.add(client.execute(LoadOperation.CREATE, System.nanoTime(), stats)
+                    .whenComplete((result, ex) -> {
+                        inFlight.release();
+                        int current = completed.incrementAndGet();
+                        if (current % Math.max(1, count / 10) == 0 || current == count) {
+                            System.out.println(String.format("Прогресс: %d / %d отправлено...", current, count));
                         }
-                    })
-                    .exceptionally(ex -> {
-                        System.err.println("Ошибка сети при создании документа " + docIndex + ": " + ex.getMessage());
-                        return null;
-                    });
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
-            futures.add(future);
+        System.out.println(String.format("Генерация завершена за %d мс.", System.currentTimeMillis() - startTime));
+        System.out.println(stats.report("Генерация документов"));
+    }
+
+    /**
+     * Закрытая модель: каждый поток - пользователь, отправляющий запросы последовательно.
+     */
+    private static void runClosed(LoadClient client, WorkloadMix mix, LoadStats stats, LoadConfig config, long end)
+            throws InterruptedException {
+        List<Thread> users = new ArrayList<>(config.getConcurrency());
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            Thread user = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    client.execute(mix.next(), System.nanoTime(), stats).join();
+                }
+            }, "load-user-" + i);
+            user.start();
+            users.add(user);
+        }
+        for (Thread user : users) {
+            user.join();
         }
+    }
 
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    /**
+     * Открытая модель: запросы планируются с равным интервалом; задержка считается
+     * от запланированного момента, поэтому ожидание свободного слота тоже входит в нее.
+     */
+    private static void runOpen(LoadClient client, WorkloadMix mix, LoadStats stats, LoadConfig config, long start, long end)
+            throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, config.getRate());
+        Semaphore inFlight = new Semaphore(config.getConcurrency());
 
-        long executionTime = System.currentTimeMillis() - startTime;
-        System.out.println(String.format("Генерация завершена! Успешно создано: %d из %d.", successCount.get(), count));
-        System.out.println(String.format("Время выполнения: %d мс.", executionTime));
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            client.execute(mix.next(), intended, stats).whenComplete((result, ex) -> inFlight.release());
+        }
+        inFlight.acquire(config.getConcurrency());
     }
 
     private static Properties loadProperties() {
@@ -80,4 +161,4 @@ public class DocumentGeneratorUtil {
         }
         return props;
     }
-}
\ No newline at end of file
+}
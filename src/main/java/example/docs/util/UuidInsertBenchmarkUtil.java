@@ -0,0 +1,119 @@
+package example.docs.util;
+
+import example.docs.id.UuidVersion;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+/**
+ * Сравнение вставки в таблицу с первичным ключом UUIDv4 и UUIDv7.
+ * <p>
+ * Для каждой версии создает таблицу со схемой, повторяющей document_history, вставляет
+ * заданное количество строк пакетами и выводит пропускную способность, размер индекса
+ * первичного ключа и объем сгенерированного WAL. Таблицы удаляются после замера.
+ * Параметры подключения и объем данных задаются в generator.properties (ключи benchmark.*).
+ */
+public class UuidInsertBenchmarkUtil {
+
+    public static void main(String[] args) throws Exception {
+        Properties props = loadProperties();
+        String url = props.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5433/docs_db");
+        String user = props.getProperty("benchmark.jdbc.user", "docs_user");
+        String password = props.getProperty("benchmark.jdbc.password", "docs_pass");
+        int rows = Integer.parseInt(props.getProperty("benchmark.uuid.rows", "500000"));
+        int batchSize = Integer.parseInt(props.getProperty("benchmark.uuid.batch-size", "1000"));
+
+        System.out.println("Сравнение UUIDv4 и UUIDv7: " + rows + " строк, пачки по " + batchSize);
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            for (UuidVersion version : UuidVersion.values()) {
+                run(connection, version, rows, batchSize);
+            }
+        }
+    }
+
+    private static void run(Connection connection, UuidVersion version, int rows, int batchSize) throws Exception {
+        String table = "bench_uuid_" + version.name().toLowerCase();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, document_id UUID NOT NULL, "
+                    + "initiator VARCHAR(255) NOT NULL, action VARCHAR(50) NOT NULL, created_at TIMESTAMP NOT NULL, comment TEXT)");
+        }
+
+        String walStart = currentWalLsn(connection);
+        long startTime = System.nanoTime();
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO " + table
+                + " (id, document_id, initiator, action, created_at, comment) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                ps.setObject(1, version.generate());
+                ps.setObject(2, version.generate());
+                ps.setString(3, "BENCHMARK");
+                ps.setString(4, "SUBMIT");
+                ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setString(6, "Sent for approval");
+                ps.addBatch();
+                if (i % batchSize == 0 || i == rows) {
+                    ps.executeBatch();
+                    connection.commit();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+
+        long executionMs = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+        long walBytes = walDiff(connection, walStart);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey'), pg_relation_size('" + table + "')")) {
+            rs.next();
+            System.out.println(String.format(
+                    "%s: %d мс, %d строк/с, индекс PK: %d КБ, таблица: %d КБ, WAL: %d КБ",
+                    version, executionMs, rows * 1000L / executionMs,
+                    rs.getLong(1) / 1024, rs.getLong(2) / 1024, walBytes / 1024));
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+    }
+
+    private static String currentWalLsn(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static long walDiff(Connection connection, String fromLsn) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)")) {
+            ps.setString(1, fromLsn);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static Properties loadProperties() {
+        Properties props = new Properties();
+        try (InputStream input = new FileInputStream("generator.properties")) {
+            props.load(input);
+        } catch (Exception ex) {
+            System.err.println("Файл generator.properties не найден в корне проекта. Используем дефолтные значения.");
+        }
+        return props;
+    }
+}
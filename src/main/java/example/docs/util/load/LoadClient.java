@@ -0,0 +1,193 @@
+package example.docs.util.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.docs.entity.DocumentStatus;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HTTP-клиент нагрузочного прогона.
+ * <p>
+ * Выполняет операции API и ведет пулы идентификаторов: созданные документы попадают в пул
+ * черновиков, успешно отправленные - в пул ожидающих утверждения. Если для SUBMIT или APPROVE
+ * пул пуст (например, его разобрали фоновые воркеры сервиса), вместо них выполняется CREATE;
+ * если для GET или BATCH_GET еще нет известных документов - SEARCH.
+ */
+public class LoadClient {
+
+    private static final int KNOWN_IDS_CAPACITY = 100_000;
+    private static final int AUTHORS = 100;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String apiUrl;
+    private final int batchSize;
+
+    private final Queue<UUID> drafts = new ConcurrentLinkedQueue<>();
+    private final Queue<UUID> submitted = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<UUID> knownIds = new AtomicReferenceArray<>(KNOWN_IDS_CAPACITY);
+    private final AtomicLong knownCount = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public LoadClient(String apiUrl, int batchSize) {
+        this.apiUrl = apiUrl;
+        this.batchSize = batchSize;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Асинхронно выполняет операцию и фиксирует результат в статистике.
+     *
+     * @param requested     операция, выбранная по весам
+     * @param intendedNanos запланированный момент отправки (от него отсчитывается задержка)
+     * @param stats         статистика прогона
+     * @return future, завершающийся после обработки ответа (никогда не завершается исключением)
+     */
+    public CompletableFuture<Void> execute(LoadOperation requested, long intendedNanos, LoadStats stats) {
+        List<UUID> batch = switch (requested) {
+            case SUBMIT -> take(drafts);
+            case APPROVE -> take(submitted);
+            default -> List.of();
+        };
+        LoadOperation operation = resolve(requested, batch);
+
+        return httpClient.sendAsync(buildRequest(operation, batch), HttpResponse.BodyHandlers.ofString())
+                .handle((response, ex) -> {
+                    long completed = System.nanoTime();
+                    boolean success = ex == null && response.statusCode() / 100 == 2;
+                    if (success) {
+                        onSuccess(operation, response.body());
+                    } else if (operation == LoadOperation.SUBMIT) {
+                        drafts.addAll(batch);
+                    } else if (operation == LoadOperation.APPROVE) {
+                        submitted.addAll(batch);
+                    }
+                    stats.record(operation, intendedNanos, completed, success);
+                    return null;
+                });
+    }
+
+    private LoadOperation resolve(LoadOperation requested, List<UUID> batch) {
+        return switch (requested) {
+            case SUBMIT, APPROVE -> batch.isEmpty() ? LoadOperation.CREATE : requested;
+            case GET, BATCH_GET -> knownCount.get() == 0 ? LoadOperation.SEARCH : requested;
+            default -> requested;
+        };
+    }
+
+    private HttpRequest buildRequest(LoadOperation operation, List<UUID> batch) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case CREATE -> {
+                long n = sequence.incrementAndGet();
+                yield post(apiUrl, String.format("{\"author\":\"Author-%d\", \"title\":\"Load Doc %d\"}", random.nextInt(AUTHORS), n));
+            }
+            case SEARCH -> {
+                DocumentStatus[] statuses = DocumentStatus.values();
+                StringBuilder query = new StringBuilder("?page=0&size=20&sort=createdAt,desc");
+                if (random.nextBoolean()) {
+                    query.append("&status=").append(statuses[random.nextInt(statuses.length)]);
+                }
+                if (random.nextBoolean()) {
+                    query.append("&author=Author-").append(random.nextInt(AUTHORS));
+                }
+                yield get(apiUrl + "/search" + query);
+            }
+            case GET -> get(apiUrl + "/" + randomKnownId());
+            case BATCH_GET -> {
+                List<UUID> ids = new ArrayList<>(batchSize);
+                for (int i = 0; i < batchSize; i++) {
+                    ids.add(randomKnownId());
+                }
+                yield post(apiUrl + "/batch-get", toJson(ids));
+            }
+            case SUBMIT -> post(apiUrl + "/submit", toJson(Map.of("documentIds", batch, "initiator", "LOAD")));
+            case APPROVE -> post(apiUrl + "/approve", toJson(Map.of("documentIds", batch, "initiator", "LOAD")));
+        };
+    }
+
+    private void onSuccess(LoadOperation operation, String body) {
+        try {
+            switch (operation) {
+                case CREATE -> {
+                    UUID id = UUID.fromString(objectMapper.readTree(body).get("id").asText());
+                    drafts.add(id);
+                    knownIds.set((int) (knownCount.getAndIncrement() % KNOWN_IDS_CAPACITY), id);
+                }
+                case SUBMIT -> {
+                    Iterator<Map.Entry<String, JsonNode>> results = objectMapper.readTree(body).fields();
+                    while (results.hasNext()) {
+                        Map.Entry<String, JsonNode> result = results.next();
+                        if ("SUCCESS".equals(result.getValue().asText())) {
+                            submitted.add(UUID.fromString(result.getKey()));
+                        }
+                    }
+                }
+                default -> {
+                    // тело ответа не нужно
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Не удалось разобрать ответ " + operation + ": " + e.getMessage());
+        }
+    }
+
+    private List<UUID> take(Queue<UUID> pool) {
+        List<UUID> batch = new ArrayList<>(batchSize);
+        UUID id;
+        while (batch.size() < batchSize && (id = pool.poll()) != null) {
+            batch.add(id);
+        }
+        return batch;
+    }
+
+    private UUID randomKnownId() {
+        long count = Math.min(knownCount.get(), KNOWN_IDS_CAPACITY);
+        UUID id = knownIds.get(ThreadLocalRandom.current().nextInt((int) Math.max(count, 1)));
+        return id != null ? id : new UUID(0, 0);
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
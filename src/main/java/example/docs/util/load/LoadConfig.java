@@ -0,0 +1,40 @@
+package example.docs.util.load;
+
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Параметры нагрузочного прогона, прочитанные из generator.properties.
+ */
+@Getter
+public class LoadConfig {
+
+    private final String apiUrl;
+    private final int preloadCount;
+    private final LoadModel model;
+    private final int concurrency;
+    private final int rate;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int batchSize;
+    private final String reportFile;
+    private final Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+
+    public LoadConfig(Properties props) {
+        this.apiUrl = props.getProperty("generator.api.url", "http://localhost:8080/api/v1/documents");
+        this.preloadCount = Integer.parseInt(props.getProperty("generator.document.count", "10"));
+        this.model = LoadModel.valueOf(props.getProperty("load.model", "closed").trim().toUpperCase());
+        this.concurrency = Integer.parseInt(props.getProperty("load.concurrency", "16"));
+        this.rate = Integer.parseInt(props.getProperty("load.rate", "100"));
+        this.warmupSeconds = Integer.parseInt(props.getProperty("load.warmup-seconds", "10"));
+        this.durationSeconds = Integer.parseInt(props.getProperty("load.duration-seconds", "0"));
+        this.batchSize = Integer.parseInt(props.getProperty("load.batch-size", "10"));
+        this.reportFile = props.getProperty("load.report.file", "load-report.txt");
+        for (LoadOperation operation : LoadOperation.values()) {
+            weights.put(operation, Integer.parseInt(props.getProperty("load.weight." + operation.getKey(), "0")));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package example.docs.util.load;
+
+/**
+ * Модель нагрузки.
+ */
+public enum LoadModel {
+    /**
+     * Закрытая модель: фиксированное число виртуальных пользователей, каждый отправляет
+     * следующий запрос сразу после получения ответа на предыдущий.
+     */
+    CLOSED,
+    /**
+     * Открытая модель: запросы поступают с фиксированной частотой независимо от скорости
+     * ответов сервиса. Задержка отсчитывается от запланированного момента отправки,
+     * поэтому очередь на стороне клиента не скрывает деградацию (coordinated omission).
+     */
+    OPEN
+}
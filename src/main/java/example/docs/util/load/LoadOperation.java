@@ -0,0 +1,20 @@
+package example.docs.util.load;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Операции смешанной нагрузки и ключи их весов в generator.properties (load.weight.&lt;key&gt;).
+ */
+@Getter
+@RequiredArgsConstructor
+public enum LoadOperation {
+    CREATE("create"),
+    SEARCH("search"),
+    GET("get"),
+    BATCH_GET("batch-get"),
+    SUBMIT("submit"),
+    APPROVE("approve");
+
+    private final String key;
+}
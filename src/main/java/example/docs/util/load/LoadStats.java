@@ -0,0 +1,114 @@
+package example.docs.util.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сбор задержек и ошибок по операциям.
+ * <p>
+ * Задержки пишутся в HdrHistogram с точностью до микросекунд. Учитываются только запросы,
+ * запланированные внутри окна замера: ответы на запросы периода прогрева отбрасываются,
+ * даже если пришли после его окончания.
+ */
+public class LoadStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<LoadOperation, Histogram> histograms = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+
+    private volatile long windowStart = Long.MAX_VALUE;
+    private volatile long windowEnd = Long.MAX_VALUE;
+
+    public LoadStats() {
+        for (LoadOperation operation : LoadOperation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Задает окно замера в единицах {@link System#nanoTime()}.
+     */
+    public void setWindow(long startNanos, long endNanos) {
+        this.windowStart = startNanos;
+        this.windowEnd = endNanos;
+    }
+
+    /**
+     * Фиксирует завершение запроса.
+     *
+     * @param operation      выполненная операция
+     * @param intendedNanos  запланированный момент отправки
+     * @param completedNanos момент получения ответа
+     * @param success        успешен ли ответ
+     */
+    public void record(LoadOperation operation, long intendedNanos, long completedNanos, boolean success) {
+        if (intendedNanos < windowStart || intendedNanos >= windowEnd) {
+            return;
+        }
+        long micros = Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+        histograms.get(operation).recordValue(Math.max(micros, 1));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Формирует отчет: сводную таблицу по операциям и полное распределение перцентилей каждой операции.
+     *
+     * @param header заголовок с параметрами прогона
+     * @return текст отчета
+     */
+    public String report(String header) {
+        double seconds = Math.max(1, windowEnd - windowStart) / 1_000_000_000.0;
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+
+        StringBuilder sb = new StringBuilder(header).append(System.lineSeparator()).append(System.lineSeparator());
+        sb.append(String.format("%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "Операция", "Запросов", "Ошибок", "Запр/с", "p50 мс", "p90 мс", "p99 мс", "p99.9 мс", "max мс"));
+        for (LoadOperation operation : LoadOperation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long operationErrors = errors.get(operation).sum();
+            appendRow(sb, operation.name(), histogram, operationErrors, seconds);
+            total.add(histogram);
+            totalErrors += operationErrors;
+        }
+        appendRow(sb, "ИТОГО", total, totalErrors, seconds);
+
+        for (LoadOperation operation : LoadOperation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            sb.append(System.lineSeparator()).append("Распределение задержек ").append(operation.name())
+                    .append(" (мс):").append(System.lineSeparator());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            histogram.outputPercentileDistribution(new PrintStream(out, true, StandardCharsets.UTF_8), 1000.0);
+            sb.append(out.toString(StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    private void appendRow(StringBuilder sb, String name, Histogram histogram, long errorCount, double seconds) {
+        sb.append(String.format("%-10s %10d %8d %10.1f", name, histogram.getTotalCount(), errorCount,
+                histogram.getTotalCount() / seconds));
+        for (double percentile : PERCENTILES) {
+            sb.append(String.format(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        sb.append(String.format(" %9.2f%n", histogram.getMaxValue() / 1000.0));
+    }
+}
@@ -0,0 +1,41 @@
+package example.docs.util.load;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Случайный выбор операции пропорционально весам.
+ */
+public class WorkloadMix {
+
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public WorkloadMix(Map<LoadOperation, Integer> weights) {
+        this.operations = weights.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(LoadOperation[]::new);
+        if (operations.length == 0) {
+            throw new IllegalArgumentException("At least one load.weight.* must be positive");
+        }
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        this.totalWeight = sum;
+    }
+
+    public LoadOperation next() {
+        int point = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
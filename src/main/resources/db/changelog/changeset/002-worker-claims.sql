@@ -0,0 +1,6 @@
+-- Аренда (lease) документов воркерами.
+-- Позволяет нескольким экземплярам сервиса и пересекающимся запускам воркеров
+-- забирать из очереди непересекающиеся пачки документов.
+ALTER TABLE documents
+    ADD COLUMN claimed_by  VARCHAR(255),
+    ADD COLUMN lease_until TIMESTAMP;
@@ -0,0 +1,60 @@
+-- Инкрементальные счетчики документов.
+-- Обновляются в той же транзакции, что и создание документа или смена его статуса.
+-- Каждый счетчик разбит на слоты (slot), чтобы параллельные транзакции не упирались в одну строку;
+-- значение счетчика - сумма по всем слотам.
+
+-- 1. Общее количество документов в каждом статусе (остаток очередей воркеров)
+CREATE TABLE document_status_totals
+(
+    status    VARCHAR(50) NOT NULL,
+    slot      SMALLINT    NOT NULL,
+    doc_count BIGINT      NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_document_status_totals PRIMARY KEY (status, slot)
+);
+
+-- 2. Количество документов в каждом статусе в разрезе автора и дня создания документа
+CREATE TABLE document_status_counters
+(
+    status    VARCHAR(50)  NOT NULL,
+    author    VARCHAR(255) NOT NULL,
+    day       DATE         NOT NULL,
+    slot      SMALLINT     NOT NULL,
+    doc_count BIGINT       NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_document_status_counters PRIMARY KEY (status, author, day, slot)
+);
+
+CREATE INDEX idx_status_counters_author ON document_status_counters (author);
+CREATE INDEX idx_status_counters_day ON document_status_counters (day);
+
+-- 3. Количество выполненных действий (SUBMIT, APPROVE) в разрезе автора документа и дня действия
+CREATE TABLE document_action_counters
+(
+    action       VARCHAR(50)  NOT NULL,
+    author       VARCHAR(255) NOT NULL,
+    day          DATE         NOT NULL,
+    slot         SMALLINT     NOT NULL,
+    action_count BIGINT       NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_document_action_counters PRIMARY KEY (action, author, day, slot)
+);
+
+CREATE INDEX idx_action_counters_day ON document_action_counters (day);
+
+-- Начальное заполнение по уже существующим данным
+INSERT INTO document_status_totals (status, slot, doc_count)
+SELECT status, 0, COUNT(*)
+FROM documents
+GROUP BY status;
+
+INSERT INTO document_status_counters (status, author, day, slot, doc_count)
+SELECT status, author, CAST(created_at AS DATE), 0, COUNT(*)
+FROM documents
+GROUP BY status, author, CAST(created_at AS DATE);
+
+INSERT INTO document_action_counters (action, author, day, slot, action_count)
+SELECT h.action, d.author, CAST(h.created_at AS DATE), 0, COUNT(*)
+FROM document_history h
+         JOIN documents d ON d.id = h.document_id
+GROUP BY h.action, d.author, CAST(h.created_at AS DATE);
@@ -0,0 +1,5 @@
+-- Последовательность уникальных номеров документов.
+-- Номера выделяются узлами блоками: nextval возвращает первый номер блока из INCREMENT BY номеров,
+-- которые узел затем раздает из памяти без обращений к базе.
+-- Шаг можно только увеличивать (см. app.numbers.block-size), иначе выданные ранее блоки пересекутся с новыми.
+CREATE SEQUENCE document_number_seq START WITH 1 INCREMENT BY 1000;
@@ -0,0 +1,60 @@
+--liquibase formatted sql
+
+--changeset docs:005-partition-document-history splitStatements:false
+-- Секционирование истории изменений по месяцам (created_at).
+-- Вставки и чтения свежей истории работают с небольшими "горячими" секциями,
+-- старые секции можно отсоединять и архивировать целиком (см. HistoryPartitionMaintenance).
+-- Первичный ключ секционированной таблицы обязан включать ключ секционирования, поэтому он становится (id, created_at);
+-- идентификаторы по-прежнему уникальны, так как генерируются приложением.
+
+ALTER TABLE document_history RENAME TO document_history_legacy;
+ALTER INDEX document_history_pkey RENAME TO document_history_legacy_pkey;
+ALTER INDEX idx_history_doc_id RENAME TO idx_history_legacy_doc_id;
+
+CREATE TABLE document_history
+(
+    id          UUID         NOT NULL,
+    document_id UUID         NOT NULL,
+    initiator   VARCHAR(255) NOT NULL,
+    action      VARCHAR(50)  NOT NULL,
+    created_at  TIMESTAMP    NOT NULL,
+    comment     TEXT,
+
+    CONSTRAINT document_history_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_history_document FOREIGN KEY (document_id) REFERENCES documents (id)
+) PARTITION BY RANGE (created_at);
+
+-- Индекс для получения истории конкретного документа (создается на каждой секции)
+CREATE INDEX idx_history_doc_id ON document_history (document_id);
+
+-- Месячные секции от самой старой записи до двух месяцев вперед
+DO
+$$
+DECLARE
+    month_start DATE;
+    last_month  DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), LOCALTIMESTAMP))::date,
+           (date_trunc('month', GREATEST(COALESCE(MAX(created_at), LOCALTIMESTAMP), LOCALTIMESTAMP)) + INTERVAL '2 months')::date
+    INTO month_start, last_month
+    FROM document_history_legacy;
+
+    WHILE month_start <= last_month
+        LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF document_history FOR VALUES FROM (%L) TO (%L)',
+                           'document_history_' || to_char(month_start, 'YYYY_MM'),
+                           month_start,
+                           (month_start + INTERVAL '1 month')::date);
+            month_start := (month_start + INTERVAL '1 month')::date;
+        END LOOP;
+END
+$$;
+
+-- Секция для записей вне созданных диапазонов (не должна пополняться при работающем обслуживании секций)
+CREATE TABLE document_history_default PARTITION OF document_history DEFAULT;
+
+INSERT INTO document_history (id, document_id, initiator, action, created_at, comment)
+SELECT id, document_id, initiator, action, created_at, comment
+FROM document_history_legacy;
+
+DROP TABLE document_history_legacy;
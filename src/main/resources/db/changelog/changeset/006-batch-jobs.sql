@@ -0,0 +1,35 @@
+-- Асинхронные пакетные задания смены статусов (POST /submit/async, /approve/async).
+-- Задание и его элементы сохраняются до начала обработки, поэтому переживают перезапуск сервиса:
+-- незавершенные задания подхватываются любым узлом после истечения аренды (claimed_by / lease_until).
+CREATE TABLE batch_jobs
+(
+    id          UUID PRIMARY KEY,
+    action      VARCHAR(50)  NOT NULL,
+    initiator   VARCHAR(255) NOT NULL,
+    status      VARCHAR(50)  NOT NULL,
+    total       INT          NOT NULL,
+    processed   INT          NOT NULL DEFAULT 0,
+    succeeded   INT          NOT NULL DEFAULT 0,
+    failed      INT          NOT NULL DEFAULT 0,
+    created_at  TIMESTAMP    NOT NULL,
+    updated_at  TIMESTAMP    NOT NULL,
+    finished_at TIMESTAMP,
+    claimed_by  VARCHAR(255),
+    lease_until TIMESTAMP
+);
+
+-- Поиск незавершенных заданий для захвата и устаревших завершенных для очистки
+CREATE INDEX idx_batch_jobs_status_created_at ON batch_jobs (status, created_at);
+
+-- Элементы задания в порядке запроса; result заполняется по мере обработки порций
+CREATE TABLE batch_job_items
+(
+    job_id           UUID        NOT NULL,
+    position         INT         NOT NULL,
+    document_id      UUID        NOT NULL,
+    expected_version BIGINT,
+    result           VARCHAR(50),
+
+    CONSTRAINT pk_batch_job_items PRIMARY KEY (job_id, position),
+    CONSTRAINT fk_batch_job_items_job FOREIGN KEY (job_id) REFERENCES batch_jobs (id) ON DELETE CASCADE
+);
@@ -0,0 +1,77 @@
+--liquibase formatted sql
+
+--changeset docs:007-document-text-search-column splitStatements:false
+-- Текстовый поиск по названию и автору.
+-- Ранжированный полнотекстовый поиск: tsvector по названию (вес A) и автору (вес B).
+-- Конфигурация 'simple' не зависит от языка документа и не применяет стемминг.
+-- Столбец поддерживается триггером, а не объявлен GENERATED ALWAYS ... STORED: добавление вычисляемого
+-- столбца переписывает всю таблицу documents под блокировкой ACCESS EXCLUSIVE, которая останавливает
+-- и чтение, и запись на время перезаписи. Столбец без значения по умолчанию добавляется мгновенно
+-- (меняются только метаданные), существующие строки заполняются порциями в следующем changeset.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE documents ADD COLUMN search_vector TSVECTOR;
+
+CREATE FUNCTION document_search_vector(title TEXT, author TEXT) RETURNS TSVECTOR
+    LANGUAGE sql
+    IMMUTABLE
+AS
+$$
+SELECT setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+       setweight(to_tsvector('simple', coalesce(author, '')), 'B')
+$$;
+
+CREATE FUNCTION documents_search_vector_trigger() RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    NEW.search_vector := document_search_vector(NEW.title, NEW.author);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER trg_documents_search_vector
+    BEFORE INSERT OR UPDATE OF title, author
+    ON documents
+    FOR EACH ROW
+EXECUTE FUNCTION documents_search_vector_trigger();
+
+--changeset docs:007-document-text-search-backfill runInTransaction:false splitStatements:false
+-- Заполнение search_vector у существующих документов порциями по 10 000 строк по возрастанию id,
+-- каждая порция - отдельная транзакция: блокируются только строки текущей порции и недолго.
+-- Новые и изменяемые строки к этому моменту уже заполняет триггер.
+DO
+$$
+    DECLARE
+        last_id    UUID := '00000000-0000-0000-0000-000000000000';
+        batch_last UUID;
+    BEGIN
+        LOOP
+            -- Для uuid нет агрегата max: верхняя граница порции - последний id первых 10 000 строк
+            SELECT b.id
+            INTO batch_last
+            FROM (SELECT id FROM documents WHERE id > last_id ORDER BY id LIMIT 10000) b
+            ORDER BY b.id DESC
+            LIMIT 1;
+            EXIT WHEN batch_last IS NULL;
+
+            UPDATE documents
+            SET search_vector = document_search_vector(title, author)
+            WHERE id > last_id
+              AND id <= batch_last
+              AND search_vector IS NULL;
+
+            last_id := batch_last;
+            COMMIT;
+        END LOOP;
+    END
+$$;
+
+--changeset docs:007-document-text-search-indexes runInTransaction:false
+-- Триграммные GIN-индексы по lower(title) и lower(author) обслуживают поиск подстроки (LIKE '%...%')
+-- без последовательного сканирования; индекс эффективен для подстрок от трех символов.
+-- Индексы строятся без блокировки записи в documents (CONCURRENTLY), поэтому changeset выполняется вне транзакции.
+CREATE INDEX CONCURRENTLY idx_docs_title_trgm ON documents USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY idx_docs_author_trgm ON documents USING gin (lower(author) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY idx_docs_search_vector ON documents USING gin (search_vector);
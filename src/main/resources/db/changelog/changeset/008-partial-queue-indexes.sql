@@ -0,0 +1,17 @@
+--liquibase formatted sql
+
+--changeset docs:008-partial-queue-indexes runInTransaction:false
+-- Частичные индексы очередей воркеров.
+-- Запрос захвата пачки читает только документы в статусах DRAFT и SUBMITTED, поэтому индексы ограничены
+-- строками очередей: их размер определяется остатком очереди, а не всей таблицей, где преобладают
+-- утвержденные документы. Ключ (created_at, id) дает порядок FIFO и покрывает выбираемый идентификатор.
+-- Условие индекса совпадает с запросом только при статусе-литерале, поэтому захват выполняется
+-- отдельным запросом на каждую очередь (см. DocumentRepository.claimDraftBatch / claimSubmittedBatch).
+-- Индексы строятся и удаляются без блокировки записи в documents (CONCURRENTLY), поэтому changeset выполняется вне транзакции.
+CREATE INDEX CONCURRENTLY idx_docs_queue_draft ON documents (created_at, id) WHERE status = 'DRAFT';
+CREATE INDEX CONCURRENTLY idx_docs_queue_submitted ON documents (created_at, id) WHERE status = 'SUBMITTED';
+
+-- Поиск по автору сортируется по дате создания: составной индекс отдает строки уже упорядоченными
+-- и заменяет индекс только по автору (фильтр по равенству автора обслуживается первым столбцом).
+CREATE INDEX CONCURRENTLY idx_docs_author_created_at ON documents (author, created_at);
+DROP INDEX CONCURRENTLY idx_docs_author;
@@ -0,0 +1,24 @@
+-- Порядковый номер записи истории для ленты изменений (/api/v1/changes).
+-- Номер выдается последовательностью при вставке и служит смещением, с которого потребитель
+-- продолжает чтение после переподключения. Существующие записи нумеруются в порядке создания.
+CREATE SEQUENCE document_history_seq;
+
+ALTER TABLE document_history
+    ADD COLUMN seq BIGINT;
+
+UPDATE document_history h
+SET seq = o.rn
+FROM (SELECT id, created_at, row_number() OVER (ORDER BY created_at, id) AS rn
+      FROM document_history) o
+WHERE h.id = o.id
+  AND h.created_at = o.created_at;
+
+SELECT setval('document_history_seq', coalesce(max(seq), 0) + 1, false)
+FROM document_history;
+
+ALTER TABLE document_history
+    ALTER COLUMN seq SET DEFAULT nextval('document_history_seq'),
+    ALTER COLUMN seq SET NOT NULL;
+
+-- Индекс создается в каждой секции; чтение ленты по возрастанию seq идет через Merge Append без сортировки.
+CREATE INDEX idx_history_seq ON document_history (seq);
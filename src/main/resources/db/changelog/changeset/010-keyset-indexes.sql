@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset docs:010-keyset-indexes runInTransaction:false
+-- Индексы курсорного листинга поиска (/api/v1/documents/search/cursor).
+-- Курсор сравнивает пару (created_at, id) и сортирует по ней, поэтому id включен в ключ индекса:
+-- страница читается одним диапазоном индекса от позиции курсора без узла Sort, в том числе
+-- среди документов с одинаковой датой создания. Новые индексы заменяют индексы только по дате
+-- и по (status, created_at), которые обслуживают те же запросы как префикс ключа.
+-- Индексы строятся без блокировки записи в documents (CONCURRENTLY), поэтому changeset выполняется вне транзакции.
+CREATE INDEX CONCURRENTLY idx_docs_created_at_id ON documents (created_at, id);
+CREATE INDEX CONCURRENTLY idx_docs_status_created_at_id ON documents (status, created_at, id);
+
+DROP INDEX CONCURRENTLY idx_docs_created_at;
+DROP INDEX CONCURRENTLY idx_docs_status_created_at;
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset docs:011-registry-registered-at-index runInTransaction:false
+-- Догоняющее чтение журнала реестра (RegistryJournal.catchUp) выбирает записи, зарегистрированные
+-- после заданного момента, в порядке (registered_at, id): индекс ограничивает чтение хвостом реестра.
+-- Индекс строится без блокировки записи в registry_entries (CONCURRENTLY), поэтому changeset выполняется вне транзакции.
+CREATE INDEX CONCURRENTLY idx_registry_registered_at ON registry_entries (registered_at, id);
@@ -0,0 +1,10 @@
+-- Ограничение повторов пакетных заданий и проверка владения по токену захвата.
+-- attempts - количество захватов задания подряд без записанного прогресса: порция, которая падает
+-- при каждой попытке, после app.batch-jobs.max-attempts захватов переводит задание в FAILED
+-- (текст последней ошибки - в last_error) вместо бесконечного повтора.
+-- claim_token выдается при каждом захвате: запись прогресса и завершение проверяют его, а не только узел,
+-- поэтому обработчик, потерявший аренду, не может записать результаты поверх нового захвата того же узла.
+ALTER TABLE batch_jobs
+    ADD COLUMN attempts    INT NOT NULL DEFAULT 0,
+    ADD COLUMN claim_token UUID,
+    ADD COLUMN last_error  VARCHAR(1000);
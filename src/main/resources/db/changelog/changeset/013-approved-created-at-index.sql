@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset docs:013-approved-created-at-index runInTransaction:false
+-- Поиск и курсорный листинг по статусу обслуживаются частичными индексами (created_at, id) по каждому статусу:
+-- DRAFT и SUBMITTED - индексами очередей воркеров (changeset 008), APPROVED - новым индексом.
+-- Полный индекс (status, created_at, id) удаляется: при его наличии планировщик выбирал его и для захвата
+-- пачки воркером, поэтому индексы очередей не использовались и только увеличивали стоимость записи.
+-- Каждая строка теперь входит ровно в один из трех частичных индексов.
+-- Запрос с параметром статуса в обобщенном плане частичные индексы не использует и читает idx_docs_created_at_id
+-- в порядке сортировки с фильтром по статусу: при трех статусах это несколько лишних строк на каждую строку страницы.
+-- Индексы строятся и удаляются без блокировки записи в documents (CONCURRENTLY), поэтому changeset выполняется вне транзакции.
+CREATE INDEX CONCURRENTLY idx_docs_approved_created_at_id ON documents (created_at, id) WHERE status = 'APPROVED';
+
+DROP INDEX CONCURRENTLY idx_docs_status_created_at_id;
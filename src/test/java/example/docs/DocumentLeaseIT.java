@@ -0,0 +1,90 @@
+package example.docs;
+
+import example.docs.entity.DocumentStatus;
+import example.docs.service.DocumentProcessor;
+import example.docs.service.DocumentQueue;
+import example.docs.service.DocumentService;
+import example.docs.service.LockingStrategy;
+import example.docs.support.EmbeddedDatabase;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Аренда документов воркерами: смена статуса снимает аренду, и документ сразу доступен очереди следующего статуса,
+ * не дожидаясь истечения app.workers.claim.lease-seconds. Воркеры отключены, очереди опрашиваются тестом.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class DocumentLeaseIT {
+
+    private static final EmbeddedPostgres POSTGRES = EmbeddedDatabase.start();
+    private static final int QUEUE_LIMIT = 1000;
+
+    @Autowired
+    private DocumentService documentService;
+    @Autowired
+    private DocumentProcessor documentProcessor;
+    @Autowired
+    private DocumentQueue documentQueue;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedDatabase.register(registry, POSTGRES);
+        registry.add("app.workers.enabled", () -> "false");
+        registry.add("app.workers.wakeup.enabled", () -> "false");
+    }
+
+    @ParameterizedTest
+    @EnumSource(LockingStrategy.class)
+    void transitionReleasesLease(LockingStrategy strategy) {
+        UUID id = documentService.createDocument("lease-test", "Lease " + strategy).getId();
+
+        assertTrue(documentQueue.poll(DocumentStatus.DRAFT, QUEUE_LIMIT).contains(id));
+        documentProcessor.processSubmit(id, "LEASE-TEST", null, strategy);
+        assertTrue(documentQueue.poll(DocumentStatus.SUBMITTED, QUEUE_LIMIT).contains(id),
+                "submitted document must be claimable before the draft lease expires");
+
+        documentProcessor.processApprove(id, "LEASE-TEST", null, strategy);
+        assertLeaseReleased(id);
+    }
+
+    @Test
+    void batchTransitionReleasesLease() {
+        List<UUID> ids = List.of(
+                documentService.createDocument("lease-test", "Lease batch 1").getId(),
+                documentService.createDocument("lease-test", "Lease batch 2").getId(),
+                documentService.createDocument("lease-test", "Lease batch 3").getId());
+
+        assertTrue(documentQueue.poll(DocumentStatus.DRAFT, QUEUE_LIMIT).containsAll(ids));
+        Map<UUID, String> submitted = documentService.submitBatch(ids, "LEASE-TEST");
+        ids.forEach(id -> assertEquals("SUCCESS", submitted.get(id)));
+        assertTrue(documentQueue.poll(DocumentStatus.SUBMITTED, QUEUE_LIMIT).containsAll(ids),
+                "submitted batch must be claimable before the draft lease expires");
+
+        Map<UUID, String> approved = documentService.approveBatch(ids, "LEASE-TEST");
+        ids.forEach(id -> assertEquals("SUCCESS", approved.get(id)));
+        ids.forEach(this::assertLeaseReleased);
+    }
+
+    private void assertLeaseReleased(UUID id) {
+        Map<String, Object> lease = jdbcTemplate.queryForMap("SELECT claimed_by, lease_until FROM documents WHERE id = ?", id);
+        assertNull(lease.get("claimed_by"));
+        assertNull(lease.get("lease_until"));
+    }
+}
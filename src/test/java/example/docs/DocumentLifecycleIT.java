@@ -0,0 +1,62 @@
+package example.docs;
+
+import example.docs.entity.DocumentStatus;
+import example.docs.service.DocumentService;
+import example.docs.support.EmbeddedDatabase;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сквозная задержка жизненного цикла DRAFT -> SUBMITTED -> APPROVED фоновыми воркерами.
+ * Воркеры запускаются после коммита (событие приложения), поэтому документ утверждается
+ * за доли секунды, а не по страховочному опросу (app.workers.submit-delay / approve-delay) или
+ * после истечения аренды, взятой воркером отправки.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class DocumentLifecycleIT {
+
+    private static final EmbeddedPostgres POSTGRES = EmbeddedDatabase.start();
+    private static final long MAX_LIFECYCLE_MS = 5000;
+
+    @Autowired
+    private DocumentService documentService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedDatabase.register(registry, POSTGRES);
+        registry.add("app.workers.enabled", () -> "true");
+        registry.add("app.workers.wakeup.enabled", () -> "true");
+    }
+
+    @Test
+    void documentIsApprovedRightAfterCommit() throws InterruptedException {
+        long start = System.nanoTime();
+        UUID id = documentService.createDocument("lifecycle-test", "Lifecycle").getId();
+
+        String status;
+        long elapsedMs;
+        do {
+            Thread.sleep(20);
+            status = jdbcTemplate.queryForObject("SELECT status FROM documents WHERE id = ?", String.class, id);
+            elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } while (!DocumentStatus.APPROVED.name().equals(status) && elapsedMs < MAX_LIFECYCLE_MS);
+
+        assertEquals(DocumentStatus.APPROVED.name(), status,
+                "document is still " + status + " after " + elapsedMs + " ms, expected approval without waiting for the poll or lease");
+        log.info("Lifecycle DRAFT -> APPROVED took {} ms", elapsedMs);
+    }
+}
@@ -0,0 +1,336 @@
+package example.docs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import example.docs.dto.DocumentSearchFilter;
+import example.docs.entity.DocumentStatus;
+import example.docs.repository.DocumentHistoryRepository;
+import example.docs.repository.DocumentRepository;
+import example.docs.repository.DocumentSpecifications;
+import example.docs.service.ChangeFeed;
+import example.docs.service.DocumentService;
+import example.docs.support.DatasetSeeder;
+import example.docs.support.EmbeddedDatabase;
+import example.docs.support.SqlCapture;
+import example.docs.support.SqlCapture.CapturedStatement;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка планов выполнения ключевых запросов на засеянном наборе данных.
+ * <p>
+ * Запросы не переписываются вручную: тест вызывает те же методы сервиса и репозиториев, что и приложение
+ * (захват пачки воркером для обеих очередей, постраничный поиск с сортировкой по дате создания по каждой
+ * комбинации фильтров, курсорный поиск, загрузка документа с историей, история пачки документов, чтение
+ * ленты изменений), и перехватывает сгенерированный SQL вместе с параметрами через {@link SqlCapture}.
+ * Для каждого запроса выполняется EXPLAIN (FORMAT JSON) с теми же параметрами и проверяется, что план использует
+ * один из ожидаемых индексов, не содержит узлов Sort/Incremental Sort по оценке от plan.sort-min-rows строк (кроме случаев,
+ * где порядок не может дать индекс: триграммный поиск, история пачки документов) и Seq Scan по таблицам крупнее
+ * plan.seqscan-min-rows строк. Сортировка небольшой выборки (например, документов одного автора, найденных
+ * bitmap-сканированием) регрессией не считается: планировщик выбирает ее, когда она дешевле чтения индекса по порядку.
+ * Индексы секций document_history сопоставляются с индексом родительской таблицы.
+ * <p>
+ * Объем данных задается свойством plan.dataset.size (по умолчанию 100 000 документов). Планы с EXPLAIN (ANALYZE, BUFFERS)
+ * сохраняются в target/plan-check/plans.md (запросы выполняются в откатываемой транзакции).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionIT {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int CLAIM_BATCH = 100;
+    private static final int HISTORY_BATCH = 20;
+    private static final int CHANGE_FEED_BATCH = 1000;
+    private static final int CURSOR_OFFSET = 1000;
+
+    private static final Set<String> SORT_NODES = Set.of("Sort", "Incremental Sort");
+
+    private static final String QUEUE_INDEX = "idx_docs_queue_submitted";
+    private static final String APPROVED_INDEX = "idx_docs_approved_created_at_id";
+    private static final String AUTHOR_INDEX = "idx_docs_author_created_at";
+    private static final String CREATED_AT_INDEX = "idx_docs_created_at_id";
+    private static final String TITLE_INDEX = "idx_docs_title_trgm";
+
+    private static final EmbeddedPostgres POSTGRES = EmbeddedDatabase.start();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long seqScanMinRows = Long.getLong("plan.seqscan-min-rows", 1000);
+    private final long sortMinRows = Long.getLong("plan.sort-min-rows", 1000);
+    private final StringBuilder report = new StringBuilder("# Планы запросов\n");
+
+    @Autowired
+    private SqlCapture sqlCapture;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DocumentService documentService;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private DocumentHistoryRepository historyRepository;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        EmbeddedDatabase.register(registry, POSTGRES);
+        registry.add("app.workers.enabled", () -> "false");
+        registry.add("app.workers.wakeup.enabled", () -> "false");
+    }
+
+    @BeforeAll
+    void seed() {
+        new DatasetSeeder(jdbcTemplate).seed(Integer.getInteger("plan.dataset.size", 100_000));
+    }
+
+    @AfterAll
+    void writeReport() throws IOException {
+        Path reportFile = Path.of("target", "plan-check", "plans.md");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> plans() {
+        return cases().stream().map(planCase -> DynamicTest.dynamicTest(planCase.getName(), () -> {
+            List<String> violations = verify(planCase);
+            report.append("\n## ").append(planCase.getName()).append("\n\n```sql\n")
+                    .append(planCase.getStatement().getSql().strip()).append("\n```\n\n```\n")
+                    .append(explainAnalyze(planCase.getStatement())).append("```\n");
+            assertTrue(violations.isEmpty(), () -> "Query plan regression: " + violations);
+        }));
+    }
+
+    /**
+     * Проверяемые запросы и ожидания к их планам.
+     */
+    private List<PlanCase> cases() {
+        TransactionTemplate rollback = new TransactionTemplate(transactionManager);
+        List<PlanCase> cases = new ArrayList<>();
+        cases.add(capture("worker-claim-draft", Set.of("idx_docs_queue_draft"), false, () -> rollback.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            documentRepository.claimDraftBatch("plan-check", 60, CLAIM_BATCH);
+        })));
+        cases.add(capture("worker-claim-submitted", Set.of(QUEUE_INDEX), false, () -> rollback.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            documentRepository.claimSubmittedBatch("plan-check", 60, CLAIM_BATCH);
+        })));
+
+        Map<String, Set<String>> searchIndexes = Map.of(
+                "none", Set.of(CREATED_AT_INDEX),
+                "s", Set.of(QUEUE_INDEX),
+                "a", Set.of(AUTHOR_INDEX),
+                "p", Set.of(CREATED_AT_INDEX),
+                "t", Set.of(TITLE_INDEX),
+                "sa", Set.of(AUTHOR_INDEX, QUEUE_INDEX),
+                "sp", Set.of(QUEUE_INDEX),
+                "ap", Set.of(AUTHOR_INDEX),
+                "st", Set.of(TITLE_INDEX),
+                "sap", Set.of(AUTHOR_INDEX, QUEUE_INDEX));
+        for (String filters : List.of("none", "s", "a", "p", "t", "sa", "sp", "ap", "st", "sap")) {
+            DocumentSearchFilter filter = filter(filters);
+            cases.add(capture("search-" + filters, searchIndexes.get(filters), filters.contains("t"), () ->
+                    documentService.searchDocuments(filter, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")), false)));
+        }
+        DocumentSearchFilter approvedFilter = new DocumentSearchFilter();
+        approvedFilter.setStatus(DocumentStatus.APPROVED);
+        cases.add(capture("search-approved", Set.of(APPROVED_INDEX), false, () ->
+                documentService.searchDocuments(approvedFilter, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")), false)));
+
+        // Курсор - позиция в середине выборки, чтобы в запросе было условие продолжения по (created_at, id)
+        Map<String, Object> position = jdbcTemplate.queryForMap(
+                "SELECT created_at, id FROM documents ORDER BY created_at DESC, id DESC OFFSET " + CURSOR_OFFSET + " LIMIT 1");
+        LocalDateTime afterCreatedAt = ((Timestamp) position.get("created_at")).toLocalDateTime();
+        UUID afterId = (UUID) position.get("id");
+        Map<String, Set<String>> cursorIndexes = Map.of(
+                "none", Set.of(CREATED_AT_INDEX),
+                "s", Set.of(QUEUE_INDEX),
+                "p", Set.of(CREATED_AT_INDEX),
+                "sp", Set.of(QUEUE_INDEX));
+        for (String filters : List.of("none", "s", "p", "sp")) {
+            DocumentSearchFilter filter = filter(filters);
+            cases.add(capture("cursor-" + filters, cursorIndexes.get(filters), false, () ->
+                    documentRepository.findSummariesAfter(DocumentSpecifications.byFilter(filter), afterCreatedAt, afterId, true, PAGE_SIZE + 1)));
+        }
+
+        List<UUID> approved = jdbcTemplate.queryForList(
+                "SELECT id FROM documents WHERE status = 'APPROVED' ORDER BY created_at DESC LIMIT " + HISTORY_BATCH, UUID.class);
+        cases.add(capture("history-by-document", Set.of("idx_history_doc_id"), false, () ->
+                documentRepository.findWithHistoryById(approved.get(0))));
+        cases.add(capture("history-batch", Set.of("idx_history_doc_id"), true, () ->
+                historyRepository.findAllByDocumentIdInOrderByCreatedAtAsc(approved)));
+
+        Long lastSeq = jdbcTemplate.queryForObject("SELECT coalesce(max(seq), 0) FROM document_history", Long.class);
+        cases.add(capture("change-feed-read", Set.of("idx_history_seq"), false, () ->
+                jdbcTemplate.queryForList(ChangeFeed.EVENTS_SQL, Math.max(0, lastSeq - CHANGE_FEED_BATCH), Long.MAX_VALUE, CHANGE_FEED_BATCH)));
+        return cases;
+    }
+
+    /**
+     * Выполняет действие приложения и берет для проверки его первый запрос
+     * (COUNT постраничного поиска, если он выполняется, идет вторым и не проверяется).
+     */
+    private PlanCase capture(String name, Set<String> indexes, boolean sortAllowed, Runnable action) {
+        List<CapturedStatement> statements = sqlCapture.capture(action);
+        assertFalse(statements.isEmpty(), () -> name + " did not execute any statement");
+        return new PlanCase(name, statements.get(0), indexes, sortAllowed);
+    }
+
+    /**
+     * Проверяет план запроса и возвращает список нарушений (пустой, если план соответствует ожиданиям).
+     */
+    private List<String> verify(PlanCase planCase) throws IOException {
+        String json = jdbcTemplate.query("EXPLAIN (FORMAT JSON) " + planCase.getStatement().getSql(),
+                planCase.getStatement()::bind, (ResultSetExtractor<String>) rs -> rs.next() ? rs.getString(1) : null);
+        List<JsonNode> nodes = new ArrayList<>();
+        collect(objectMapper.readTree(json).get(0).get("Plan"), nodes);
+
+        List<String> violations = new ArrayList<>();
+        Set<String> usedIndexes = new LinkedHashSet<>();
+        for (JsonNode node : nodes) {
+            String type = node.path("Node Type").asText();
+            if (node.has("Index Name")) {
+                usedIndexes.add(rootIndex(node.get("Index Name").asText()));
+            }
+            long sortRows = node.path("Plan Rows").asLong();
+            if (SORT_NODES.contains(type) && !planCase.isSortAllowed() && sortRows >= sortMinRows) {
+                violations.add(type + " on " + node.path("Sort Key") + " (" + sortRows + " rows)");
+            }
+            if ("Seq Scan".equals(type)) {
+                String relation = node.path("Relation Name").asText();
+                long rows = relationRows(relation);
+                if (rows >= seqScanMinRows) {
+                    violations.add("Seq Scan on " + relation + " (" + rows + " rows)");
+                }
+            }
+        }
+        if (planCase.getIndexes().stream().noneMatch(usedIndexes::contains)) {
+            violations.add("expected one of " + planCase.getIndexes() + ", plan uses " + usedIndexes);
+        }
+        return violations;
+    }
+
+    /**
+     * Текстовый план с фактическим временем выполнения. Запрос выполняется в транзакции,
+     * которая откатывается, поэтому захват пачки не меняет данные.
+     */
+    private String explainAnalyze(CapturedStatement statement) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            StringBuilder plan = new StringBuilder();
+            jdbcTemplate.query("EXPLAIN (ANALYZE, BUFFERS) " + statement.getSql(), statement::bind,
+                    rs -> {
+                        plan.append(rs.getString(1)).append('\n');
+                    });
+            return plan.toString();
+        });
+    }
+
+    /**
+     * Фильтр поиска по комбинации: s - статус, a - автор, p - период (последние 30 дней), t - подстрока названия.
+     */
+    private static DocumentSearchFilter filter(String filters) {
+        DocumentSearchFilter filter = new DocumentSearchFilter();
+        if (filters.contains("s")) {
+            filter.setStatus(DocumentStatus.SUBMITTED);
+        }
+        if (filters.contains("a")) {
+            filter.setAuthor("Author-7");
+        }
+        if (filters.contains("p")) {
+            filter.setFrom(LocalDateTime.now().minusDays(30));
+            filter.setTo(LocalDateTime.now());
+        }
+        if (filters.contains("t")) {
+            filter.setTitleContains("ment 4242");
+        }
+        return filter;
+    }
+
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, nodes);
+        }
+    }
+
+    /**
+     * Имя индекса родительской таблицы для индекса секции; для обычного индекса - его собственное имя.
+     */
+    private String rootIndex(String index) {
+        return jdbcTemplate.queryForObject("SELECT coalesce(pg_partition_root(to_regclass(?))::text, ?)",
+                String.class, index, index);
+    }
+
+    private long relationRows(String relation) {
+        Double rows = jdbcTemplate.queryForObject(
+                "SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)", Double.class, relation);
+        return rows != null ? rows.longValue() : 0;
+    }
+
+    /**
+     * Источник данных приложения оборачивается в {@link SqlCapture}, чтобы перехватывать сгенерированные запросы.
+     */
+    @TestConfiguration
+    static class CaptureConfiguration {
+
+        @Bean
+        static BeanPostProcessor sqlCapturePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                            ? new SqlCapture(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Проверяемый запрос: перехваченный SQL, ожидаемые индексы (достаточно любого из них) и допустимость сортировки.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class PlanCase {
+        private final String name;
+        private final CapturedStatement statement;
+        private final Set<String> indexes;
+        private final boolean sortAllowed;
+    }
+}
@@ -0,0 +1,123 @@
+package example.docs.support;
+
+import example.docs.entity.DocumentStatus;
+import example.docs.id.IdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Заполнение базы бенчмарков и проверки планов запросов реалистичным набором документов.
+ * <p>
+ * Распределение статусов: 20% DRAFT, 20% SUBMITTED, 60% APPROVED; даты создания равномерно
+ * распределены по последнему году; авторы - Author-0 ... Author-999. Для SUBMITTED и APPROVED
+ * создается история, для APPROVED - запись в реестре. После заполнения пересчитываются
+ * счетчики и собирается статистика планировщика.
+ */
+@Slf4j
+public class DatasetSeeder {
+
+    public static final int AUTHORS = 1000;
+    private static final int CHUNK = 5000;
+    private static final AtomicLong NUMBER = new AtomicLong();
+
+    private final JdbcTemplate jdbcTemplate;
+    private List<UUID> approvedSample = List.of();
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void seed(int size) {
+        Long existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM documents WHERE unique_number LIKE 'BENCH-%'", Long.class);
+        int missing = size - (existing != null ? existing.intValue() : 0);
+        NUMBER.set(existing != null ? existing : 0);
+
+        if (missing > 0) {
+            log.info("Seeding {} benchmark documents", missing);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int offset = 0; offset < missing; offset += CHUNK) {
+                int chunk = Math.min(CHUNK, missing - offset);
+                for (DocumentStatus status : DocumentStatus.values()) {
+                    int share = status == DocumentStatus.APPROVED ? chunk - 2 * (chunk / 5) : chunk / 5;
+                    insertDocuments(status, share, LocalDateTime.now().minusSeconds(random.nextLong(365L * 24 * 3600)));
+                }
+            }
+            rebuildCounters();
+            jdbcTemplate.execute("ANALYZE");
+        }
+
+        approvedSample = jdbcTemplate.queryForList(
+                "SELECT id FROM documents WHERE status = 'APPROVED' ORDER BY random() LIMIT 10000", UUID.class);
+    }
+
+    /**
+     * Вставляет документы в заданном статусе вместе с историей и записями реестра.
+     *
+     * @param status    статус документов
+     * @param count     количество документов
+     * @param createdAt опорная дата создания (документы получают соседние значения)
+     * @return идентификаторы вставленных документов
+     */
+    public List<UUID> insertDocuments(DocumentStatus status, int count, LocalDateTime createdAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<UUID> ids = new ArrayList<>(count);
+        List<Object[]> documents = new ArrayList<>(count);
+        List<Object[]> history = new ArrayList<>();
+        List<Object[]> registry = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            UUID id = IdGenerator.next();
+            long number = NUMBER.incrementAndGet();
+            Timestamp created = Timestamp.valueOf(createdAt.plusNanos(i * 1000L));
+            ids.add(id);
+            documents.add(new Object[]{id, "BENCH-" + number, "Author-" + random.nextInt(AUTHORS),
+                    "Benchmark document " + number, status.name(), created, created});
+            if (status != DocumentStatus.DRAFT) {
+                history.add(new Object[]{IdGenerator.next(), id, "BENCHMARK", "SUBMIT", created, "Sent for approval"});
+            }
+            if (status == DocumentStatus.APPROVED) {
+                history.add(new Object[]{IdGenerator.next(), id, "BENCHMARK", "APPROVE", created, "Document approved"});
+                registry.add(new Object[]{IdGenerator.next(), id, created});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO documents (id, unique_number, author, title, status, created_at, updated_at, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)", documents);
+        if (!history.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO document_history (id, document_id, initiator, action, created_at, comment) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", history);
+        }
+        if (!registry.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO registry_entries (id, document_id, registered_at) VALUES (?, ?, ?)", registry);
+        }
+        return ids;
+    }
+
+    /**
+     * Случайный идентификатор утвержденного документа из заранее выбранной выборки.
+     */
+    public UUID randomApprovedId() {
+        return approvedSample.get(ThreadLocalRandom.current().nextInt(approvedSample.size()));
+    }
+
+    private void rebuildCounters() {
+        jdbcTemplate.execute("TRUNCATE document_status_totals, document_status_counters, document_action_counters");
+        jdbcTemplate.execute("INSERT INTO document_status_totals (status, slot, doc_count) "
+                + "SELECT status, 0, COUNT(*) FROM documents GROUP BY status");
+        jdbcTemplate.execute("INSERT INTO document_status_counters (status, author, day, slot, doc_count) "
+                + "SELECT status, author, CAST(created_at AS DATE), 0, COUNT(*) FROM documents "
+                + "GROUP BY status, author, CAST(created_at AS DATE)");
+        jdbcTemplate.execute("INSERT INTO document_action_counters (action, author, day, slot, action_count) "
+                + "SELECT h.action, d.author, CAST(h.created_at AS DATE), 0, COUNT(*) FROM document_history h "
+                + "JOIN documents d ON d.id = h.document_id GROUP BY h.action, d.author, CAST(h.created_at AS DATE)");
+    }
+}
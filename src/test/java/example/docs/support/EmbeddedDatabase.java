@@ -0,0 +1,46 @@
+package example.docs.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+
+/**
+ * Встроенный PostgreSQL (zonky embedded-postgres) для интеграционных тестов.
+ * Каждый тестовый класс получает собственный экземпляр базы, который останавливается при завершении JVM.
+ */
+public final class EmbeddedDatabase {
+
+    private EmbeddedDatabase() {
+    }
+
+    public static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM завершается, ошибки остановки базы не важны
+                }
+            }, "embedded-postgres-shutdown"));
+            return postgres;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+
+    /**
+     * Подключает контекст сервиса к встроенной базе и отключает компоненты, которые тестам не нужны:
+     * LISTEN/NOTIFY, ленту изменений и локальный журнал реестра.
+     */
+    public static void register(DynamicPropertyRegistry registry, EmbeddedPostgres postgres) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("app.notify.enabled", () -> "false");
+        registry.add("app.feed.enabled", () -> "false");
+        registry.add("app.registry.journal.enabled", () -> "false");
+        registry.add("logging.level.org.hibernate.SQL", () -> "WARN");
+    }
+}
@@ -0,0 +1,142 @@
+package example.docs.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Источник данных, который запоминает SQL, фактически отправляемый в базу, вместе со значениями параметров.
+ * <p>
+ * Пока выполняется {@link #capture(Runnable)}, каждый подготовленный в текущем потоке запрос (Hibernate,
+ * нативные запросы репозиториев, JdbcTemplate) записывается в виде текста и вызовов set*. Записанный запрос
+ * можно повторить с теми же параметрами, например под EXPLAIN: в отличие от текста, полученного через
+ * StatementInspector Hibernate, для плана доступны и значения параметров, от которых он зависит.
+ */
+public class SqlCapture extends DelegatingDataSource implements AutoCloseable {
+
+    private final ThreadLocal<List<CapturedStatement>> active = new ThreadLocal<>();
+
+    public SqlCapture(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * Выполняет действие и возвращает подготовленные им запросы в порядке выполнения.
+     */
+    public List<CapturedStatement> capture(Runnable action) {
+        List<CapturedStatement> statements = new ArrayList<>();
+        active.set(statements);
+        try {
+            action.run();
+        } finally {
+            active.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        Object result = invoke(connection, method, args);
+                        List<CapturedStatement> statements = active.get();
+                        if (statements != null && result instanceof PreparedStatement statement
+                                && method.getName().equals("prepareStatement")) {
+                            CapturedStatement captured = new CapturedStatement((String) args[0]);
+                            statements.add(captured);
+                            yield record(statement, captured);
+                        }
+                        yield result;
+                    }
+                });
+    }
+
+    private PreparedStatement record(PreparedStatement statement, CapturedStatement captured) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == PreparedStatement.class && args != null && args.length >= 2
+                            && method.getName().startsWith("set")) {
+                        captured.getBindings().add(new Binding(method, args));
+                    } else if (method.getName().equals("clearParameters")) {
+                        captured.getBindings().clear();
+                    }
+                    return switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> invoke(statement, method, args);
+                    };
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Записанный запрос: текст и вызовы установки параметров.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class CapturedStatement {
+        private final String sql;
+        private final List<Binding> bindings = new ArrayList<>();
+
+        /**
+         * Устанавливает записанные параметры в другой подготовленный запрос (например, EXPLAIN этого запроса).
+         */
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.getMethod().invoke(statement, binding.getArgs());
+                } catch (InvocationTargetException e) {
+                    if (e.getTargetException() instanceof SQLException sqlException) {
+                        throw sqlException;
+                    }
+                    throw new IllegalStateException("Failed to bind " + binding.getMethod().getName(), e.getTargetException());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Failed to bind " + binding.getMethod().getName(), e);
+                }
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Binding {
+        private final Method method;
+        private final Object[] args;
+    }
+}